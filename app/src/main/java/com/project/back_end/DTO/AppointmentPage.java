@@ -0,0 +1,8 @@
+package com.project.back_end.DTO;
+
+import java.util.List;
+
+// One page of a patient's appointments, as returned by the appointment history endpoints.
+// nextCursor is null on the last page.
+public record AppointmentPage(List<AppointmentDTO> appointments, String nextCursor) {
+}
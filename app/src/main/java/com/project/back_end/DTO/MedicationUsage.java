@@ -0,0 +1,5 @@
+package com.project.back_end.DTO;
+
+// One row of a doctor's medication usage report: how often a medication was prescribed and to how many patients.
+public record MedicationUsage(String medication, long prescriptions, long patients) {
+}
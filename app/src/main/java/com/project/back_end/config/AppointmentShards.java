@@ -0,0 +1,154 @@
+package com.project.back_end.config;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Where appointment rows live. Every doctor's appointments are on one shard, chosen by a jump consistent hash of
+// the doctor ID, and each shard hands out appointment IDs from its own range, so an ID alone names its shard.
+// With sharding disabled there is a single shard and every method simply runs the work on the caller's thread.
+public class AppointmentShards {
+
+    // Shard k's appointment IDs start at (k << ID_SHARD_SHIFT) + 1, leaving 2^40 IDs per shard
+    public static final int ID_SHARD_SHIFT = 40;
+
+    private final int count;
+    private final PlatformTransactionManager transactionManager;
+    private final Executor fanOutExecutor;
+
+    public AppointmentShards(int count, PlatformTransactionManager transactionManager, Executor fanOutExecutor) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.count = count;
+        this.transactionManager = transactionManager;
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
+    public static AppointmentShards unsharded() {
+        return new AppointmentShards(1, null, null);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    public int shardOfDoctor(long doctorId) {
+        return jumpConsistentHash(doctorId, count);
+    }
+
+    // IDs outside every shard's range cannot exist, so they are looked up (and not found) on shard 0
+    public int shardOfAppointment(long appointmentId) {
+        long shard = appointmentId >>> ID_SHARD_SHIFT;
+        return shard < count ? (int) shard : 0;
+    }
+
+    public static long firstAppointmentId(int shard) {
+        return ((long) shard << ID_SHARD_SHIFT) + 1;
+    }
+
+    public <T> T onDoctorShard(long doctorId, Supplier<T> work) {
+        return onShard(shardOfDoctor(doctorId), work);
+    }
+
+    public <T> T onAppointmentShard(long appointmentId, Supplier<T> work) {
+        return onShard(shardOfAppointment(appointmentId), work);
+    }
+
+    // Runs the work in its own transaction on the shard, read-only if the caller's transaction is.
+    // A caller's transaction may already hold a connection to another shard, which is why a new one is started.
+    public <T> T onShard(int shard, Supplier<T> work) {
+        return onShard(shard, TransactionSynchronizationManager.isCurrentTransactionReadOnly(), work);
+    }
+
+    // Runs read-only work on every shard in parallel and returns the results in shard order
+    public <T> List<T> onEveryShard(Supplier<T> work) {
+        if (!isSharded()) {
+            return List.of(work.get());
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(target, true, work), fanOutExecutor));
+        }
+        return joinAll(futures);
+    }
+
+    // Splits appointment IDs by shard and runs the work once per shard that holds any of them, in parallel
+    public <T> List<T> onShardsOfAppointments(Collection<Long> appointmentIds, Function<List<Long>, List<T>> work) {
+        if (!isSharded()) {
+            return work.apply(List.copyOf(appointmentIds));
+        }
+        Map<Integer, List<Long>> idsByShard = new TreeMap<>();
+        for (Long id : appointmentIds) {
+            idsByShard.computeIfAbsent(shardOfAppointment(id), shard -> new ArrayList<>()).add(id);
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(idsByShard.size());
+        idsByShard.forEach((shard, ids) -> futures.add(CompletableFuture.supplyAsync(
+                () -> onShard(shard, true, () -> work.apply(ids)), fanOutExecutor)));
+        List<T> results = new ArrayList<>();
+        joinAll(futures).forEach(results::addAll);
+        return results;
+    }
+
+    private <T> T onShard(int shard, boolean readOnly, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        Integer previous = ShardRouting.current();
+        if (Objects.equals(previous, shard) && TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(readOnly);
+        ShardRouting.set(shard);
+        try {
+            return transaction.execute(status -> work.get());
+        } finally {
+            ShardRouting.set(previous);
+        }
+    }
+
+    private static <T> List<T> joinAll(List<CompletableFuture<T>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    // Lamping and Veach, "A Fast, Minimal Memory, Consistent Hash Algorithm": when shards are added,
+    // only the doctors that must move to a new shard change shard
+    static int jumpConsistentHash(long key, int buckets) {
+        long bucket = -1;
+        long jump = 0;
+        while (jump < buckets) {
+            bucket = jump;
+            key = key * 2862933555777941757L + 1;
+            jump = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
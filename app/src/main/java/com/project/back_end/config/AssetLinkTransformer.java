@@ -0,0 +1,96 @@
+package com.project.back_end.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ResourceTransformer;
+import org.springframework.web.servlet.resource.ResourceTransformerChain;
+import org.springframework.web.servlet.resource.TransformedResource;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Points the src and href links of an HTML page that lead into the asset directories at their fingerprinted URLs
+// (see StaticAssetConfig): "../js/render.js" on /pages/patientDashboard.html becomes "/v-<fingerprint>/js/render.js".
+// Links are resolved the way the browser resolves them, against the URL the page was requested with.
+class AssetLinkTransformer implements ResourceTransformer {
+
+    private static final Pattern LINK = Pattern.compile("\\b(src|href)(\\s*=\\s*)([\"'])([^\"']*)\\3");
+    private static final Pattern SCHEME = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]*:");
+
+    private final String versionPrefix;
+    private final List<String> assetDirectories;
+
+    AssetLinkTransformer(String versionPrefix, List<String> assetDirectories) {
+        this.versionPrefix = versionPrefix;
+        this.assetDirectories = assetDirectories;
+    }
+
+    @Override
+    public Resource transform(HttpServletRequest request, Resource resource, ResourceTransformerChain chain)
+            throws IOException {
+        resource = chain.transform(request, resource);
+        String filename = resource.getFilename();
+        if (filename == null || !filename.endsWith(".html")) {
+            return resource;
+        }
+
+        UrlPathHelper urlPathHelper = UrlPathHelper.defaultInstance;
+        String contextPath = urlPathHelper.getOriginatingContextPath(request);
+        String pagePath = urlPathHelper.getOriginatingRequestUri(request).substring(contextPath.length());
+        String directory = pagePath.substring(0, pagePath.lastIndexOf('/') + 1);
+
+        Matcher link = LINK.matcher(resource.getContentAsString(StandardCharsets.UTF_8));
+        StringBuilder page = new StringBuilder();
+        while (link.find()) {
+            String target = fingerprinted(directory, link.group(4));
+            String replacement = target == null ? link.group()
+                    : link.group(1) + link.group(2) + link.group(3) + contextPath + target + link.group(3);
+            link.appendReplacement(page, Matcher.quoteReplacement(replacement));
+        }
+        link.appendTail(page);
+        return new TransformedResource(resource, page.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The fingerprinted path for a link into an asset directory, null for any other link
+    private String fingerprinted(String directory, String link) {
+        if (link.isEmpty() || link.startsWith("//") || link.startsWith("#") || SCHEME.matcher(link).find()) {
+            return null;
+        }
+        int suffixStart = link.length();
+        for (char delimiter : new char[] {'?', '#'}) {
+            int index = link.indexOf(delimiter);
+            if (index >= 0 && index < suffixStart) {
+                suffixStart = index;
+            }
+        }
+        String path = normalize(link.startsWith("/") ? link.substring(0, suffixStart)
+                : directory + link.substring(0, suffixStart));
+        for (String assetDirectory : assetDirectories) {
+            if (path.startsWith("/" + assetDirectory)) {
+                return versionPrefix + path + link.substring(suffixStart);
+            }
+        }
+        return null;
+    }
+
+    // Resolves "." and ".." segments; ".." above the root stays at the root, as in a browser
+    private static String normalize(String path) {
+        Deque<String> segments = new ArrayDeque<>();
+        String[] parts = path.split("/", -1);
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            if (part.equals("..")) {
+                segments.pollLast();
+            } else if (!part.equals(".") && (!part.isEmpty() || i == parts.length - 1)) {
+                segments.addLast(part);
+            }
+        }
+        return "/" + String.join("/", segments);
+    }
+}
@@ -0,0 +1,64 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// Bounded executors for work that blocks on a backing store.
+// Each store gets its own pool, so a slow MySQL cannot starve Mongo calls and vice versa.
+// With virtual threads (spring.threads.virtual.enabled, see application-virtual-threads.properties) each task gets
+// a virtual thread of its own instead, and the stores' connection pools bound the concurrent work.
+@Configuration
+public class AsyncConfig {
+
+    private final boolean virtualThreads;
+
+    public AsyncConfig(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    // Declaring any Executor bean makes Spring Boot drop its own, which Spring MVC uses for async requests
+    // (e.g. streaming exports), so it is recreated here from the auto-configured builders and spring.task.execution.*
+    @Bean(name = "applicationTaskExecutor")
+    public AsyncTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder,
+                                                     SimpleAsyncTaskExecutorBuilder virtualThreadBuilder) {
+        return virtualThreads ? virtualThreadBuilder.build() : builder.build();
+    }
+
+    @Bean
+    public AsyncTaskExecutor mysqlExecutor(@Value("${executors.mysql.pool-size:10}") int poolSize,
+                                           @Value("${executors.mysql.queue-capacity:100}") int queueCapacity) {
+        return storeExecutor("mysql-", poolSize, queueCapacity);
+    }
+
+    @Bean
+    public AsyncTaskExecutor mongoExecutor(@Value("${executors.mongo.pool-size:10}") int poolSize,
+                                           @Value("${executors.mongo.queue-capacity:100}") int queueCapacity) {
+        return storeExecutor("mongo-", poolSize, queueCapacity);
+    }
+
+    private AsyncTaskExecutor storeExecutor(String prefix, int poolSize, int queueCapacity) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+            executor.setVirtualThreads(true);
+            executor.setTaskDecorator(ReplicaRouting::propagate);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefix);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        // Keeps a request's read-your-writes routing when its queries run on these threads
+        executor.setTaskDecorator(ReplicaRouting::propagate);
+        return executor;
+    }
+}
@@ -0,0 +1,75 @@
+package com.project.back_end.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+// Writes a LocalDateTime exactly as DateTimeFormatter.ISO_LOCAL_DATE_TIME would ("2025-05-01T09:00:00"),
+// digit by digit into a char array instead of going through the formatter and an intermediate String.
+// Everything the fast path does not cover (fractional seconds, years outside 0000-9999, timestamps, or a property
+// with a @JsonFormat) is left to Jackson's own serializer.
+public class IsoLocalDateTimeSerializer extends StdSerializer<LocalDateTime> implements ContextualSerializer {
+
+    public static final IsoLocalDateTimeSerializer INSTANCE = new IsoLocalDateTimeSerializer();
+
+    private static final int LENGTH = "yyyy-MM-ddTHH:mm:ss".length();
+
+    protected IsoLocalDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        if (JsonFormat.Value.empty().equals(findFormatOverrides(provider, property, handledType()))) {
+            return this;
+        }
+        return LocalDateTimeSerializer.INSTANCE.createContextual(provider, property);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        int year = value.getYear();
+        if (value.getNano() != 0 || year < 0 || year > 9999
+                || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            LocalDateTimeSerializer.INSTANCE.serialize(value, generator, provider);
+            return;
+        }
+        char[] text = new char[LENGTH];
+        digits(text, 0, year / 100);
+        digits(text, 2, year % 100);
+        text[4] = '-';
+        digits(text, 5, value.getMonthValue());
+        text[7] = '-';
+        digits(text, 8, value.getDayOfMonth());
+        text[10] = 'T';
+        digits(text, 11, value.getHour());
+        text[13] = ':';
+        digits(text, 14, value.getMinute());
+        text[16] = ':';
+        digits(text, 17, value.getSecond());
+        generator.writeString(text, 0, LENGTH);
+    }
+
+    @Override
+    public void serializeWithType(LocalDateTime value, JsonGenerator generator, SerializerProvider provider,
+                                  TypeSerializer typeSerializer) throws IOException {
+        LocalDateTimeSerializer.INSTANCE.serializeWithType(value, generator, provider, typeSerializer);
+    }
+
+    private static void digits(char[] text, int offset, int value) {
+        text[offset] = (char) ('0' + value / 10);
+        text[offset + 1] = (char) ('0' + value % 10);
+    }
+}
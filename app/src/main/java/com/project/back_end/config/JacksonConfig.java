@@ -0,0 +1,43 @@
+package com.project.back_end.config;
+
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.LocalDateTime;
+
+// Tunes the ObjectMapper that Spring Boot builds for the REST responses (and the NDJSON export).
+// The JSON itself is unchanged; JacksonConfigTests compares it with a stock mapper's.
+@Configuration
+public class JacksonConfig {
+
+    private final boolean virtualThreads;
+
+    public JacksonConfig(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    // Reads bean properties through generated lambdas instead of reflective getter calls.
+    // Spring Boot registers every Module bean with its ObjectMapper.
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer serializationFastPath() {
+        return builder -> {
+            builder.serializerByType(LocalDateTime.class, IsoLocalDateTimeSerializer.INSTANCE);
+            // Jackson keeps its read/write buffers per thread by default, which a virtual thread (one per task)
+            // never gets to reuse; a pool shared by all threads does
+            if (virtualThreads) {
+                builder.postConfigurer(mapper -> mapper.getFactory()
+                        .setRecyclerPool(JsonRecyclerPools.sharedConcurrentDequePool()));
+            }
+        };
+    }
+}
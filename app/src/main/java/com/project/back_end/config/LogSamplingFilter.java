@@ -0,0 +1,74 @@
+package com.project.back_end.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Logs 1 in N INFO (and lower) messages of the configured logger categories, declared in logback-spring.xml as
+// <category>logger.name=N</category>. Warnings and errors are always logged, as is everything from other loggers.
+// Sampled-out messages are dropped before Logback creates an event, so they are never formatted or queued.
+public class LogSamplingFilter extends TurboFilter {
+
+    private static final Sampler UNSAMPLED = new Sampler(1);
+
+    private final Map<String, Integer> rates = new LinkedHashMap<>();
+    private final Map<String, Sampler> samplers = new ConcurrentHashMap<>();
+
+    public void addCategory(String category) {
+        int separator = category.lastIndexOf('=');
+        if (separator < 1) {
+            addError("Sampled category must be <logger name>=<rate>: " + category);
+            return;
+        }
+        rates.put(category.substring(0, separator).trim(), Integer.parseInt(category.substring(separator + 1).trim()));
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXxxEnabled() checks (no format) and disabled levels must not use up a sample
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Sampler sampler = samplers.get(logger.getName());
+        if (sampler == null) {
+            sampler = samplers.computeIfAbsent(logger.getName(), this::samplerFor);
+        }
+        return sampler.sample() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    // The most specific configured category that contains the logger, or none
+    private Sampler samplerFor(String loggerName) {
+        String match = null;
+        for (String category : rates.keySet()) {
+            boolean contains = loggerName.equals(category) || loggerName.startsWith(category + ".");
+            if (contains && (match == null || category.length() > match.length())) {
+                match = category;
+            }
+        }
+        int rate = match == null ? 1 : rates.get(match);
+        return rate <= 1 ? UNSAMPLED : new Sampler(rate);
+    }
+
+    private static final class Sampler {
+
+        private final int rate;
+        private final AtomicLong calls = new AtomicLong();
+
+        Sampler(int rate) {
+            this.rate = rate;
+        }
+
+        // The first message is always logged, then every rate-th one
+        boolean sample() {
+            return rate <= 1 || calls.getAndIncrement() % rate == 0;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.project.back_end.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.back_end.services.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+// Remembers who wrote recently (any successful POST/PUT/DELETE carrying a token) and sends that user's
+// requests to the primary for the read-your-writes window, so e.g. a patient sees an appointment right after booking it.
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final TokenService tokenService;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(TokenService tokenService, Duration window) {
+        this.tokenService = tokenService;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        String identifier = identifier(request);
+        if (identifier != null && recentWriters.getIfPresent(identifier) != null) {
+            ReplicaRouting.forcePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                               @NonNull Object handler) {
+        ReplicaRouting.clear();
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        ReplicaRouting.clear();
+        if (!READ_METHODS.contains(request.getMethod()) && response.getStatus() < 400) {
+            String identifier = identifier(request);
+            if (identifier != null) {
+                recentWriters.put(identifier, Boolean.TRUE);
+            }
+        }
+    }
+
+    // Tokens travel as the {token} path variable
+    private String identifier(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (!(variables instanceof Map<?, ?> map) || !(map.get("token") instanceof String token)) {
+            return null;
+        }
+        try {
+            return tokenService.extractIdentifier(token);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.project.back_end.config;
+
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Keeps the reference tables (doctor, its available times, patient, admin) identical on every shard, since
+// appointment queries join them and the appointment foreign keys point at them.
+// Hibernate events collect the rows written in a transaction; after it commits, each row is copied by ID from the
+// shard it was written on to all the others. Rows are copied as they are, so the IDs stay the same everywhere.
+public class ReferenceDataReplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataReplicator.class);
+
+    private static final int RESYNC_PAGE_SIZE = 1_000;
+
+    // Replicated tables, their entity classes and the element collection tables that belong to their rows
+    private static final Map<Class<?>, Table> TABLES = Map.of(
+            Doctor.class, new Table("doctor", "doctor_available_times", "doctor_id"),
+            Patient.class, new Table("patient", null, null),
+            Admin.class, new Table("admin", null, null));
+
+    private record Table(String name, String childTable, String childKey) {
+    }
+
+    private record Change(Table table, Object id) {
+    }
+
+    private final ShardDataSources shards;
+    private final Counter failureCounter;
+
+    public ReferenceDataReplicator(ShardDataSources shards, MeterRegistry meterRegistry) {
+        this.shards = shards;
+        this.failureCounter = Counter.builder("datasource.sharding.replication.failures")
+                .description("Reference rows that could not be copied to every shard")
+                .register(meterRegistry);
+    }
+
+    public void register(EntityManagerFactory entityManagerFactory) {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        Listener listener = new Listener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+    }
+
+    // Copies every reference row from shard 0 to the other shards, e.g. after shards were added or a copy failed
+    public void resync() {
+        for (Table table : TABLES.values()) {
+            JdbcTemplate source = new JdbcTemplate(shards.get(0));
+            long afterId = 0;
+            List<Map<String, Object>> rows;
+            do {
+                rows = source.queryForList("SELECT * FROM " + table.name() + " WHERE id > ? ORDER BY id LIMIT ?",
+                        afterId, RESYNC_PAGE_SIZE);
+                for (Map<String, Object> row : rows) {
+                    copy(0, table, row.get("id"), row);
+                }
+                if (!rows.isEmpty()) {
+                    afterId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+                }
+            } while (rows.size() == RESYNC_PAGE_SIZE);
+        }
+    }
+
+    private void changed(Object entity, Object id) {
+        Table table = entity == null ? null : TABLES.get(entity.getClass());
+        if (table == null || id == null) {
+            return;
+        }
+        Change change = new Change(table, id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            replicate(sourceShard(), Set.of(change));
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending) {
+                pending.changes.add(change);
+                return;
+            }
+        }
+        PendingChanges pending = new PendingChanges(sourceShard());
+        pending.changes.add(change);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    private static int sourceShard() {
+        Integer shard = ShardRouting.current();
+        return shard == null ? 0 : shard;
+    }
+
+    private void replicate(int sourceShard, Set<Change> changes) {
+        JdbcTemplate source = new JdbcTemplate(shards.get(sourceShard));
+        for (Change change : changes) {
+            try {
+                List<Map<String, Object>> rows = source.queryForList(
+                        "SELECT * FROM " + change.table().name() + " WHERE id = ?", change.id());
+                copy(sourceShard, change.table(), change.id(), rows.isEmpty() ? null : rows.get(0));
+            } catch (RuntimeException e) {
+                failureCounter.increment();
+                logger.error("Could not copy {} {} to every shard: {}", change.table().name(), change.id(), e.getMessage());
+            }
+        }
+    }
+
+    // Upserts the row (or deletes it when it no longer exists) and replaces its child rows on every other shard
+    private void copy(int sourceShard, Table table, Object id, Map<String, Object> row) {
+        List<Map<String, Object>> children = row == null || table.childTable() == null ? List.of()
+                : new JdbcTemplate(shards.get(sourceShard)).queryForList(
+                        "SELECT * FROM " + table.childTable() + " WHERE " + table.childKey() + " = ?", id);
+        for (int shard = 0; shard < shards.count(); shard++) {
+            if (shard == sourceShard) {
+                continue;
+            }
+            JdbcTemplate target = new JdbcTemplate(shards.get(shard));
+            if (table.childTable() != null) {
+                target.update("DELETE FROM " + table.childTable() + " WHERE " + table.childKey() + " = ?", id);
+            }
+            if (row == null) {
+                target.update("DELETE FROM " + table.name() + " WHERE id = ?", id);
+                continue;
+            }
+            upsert(target, table.name(), row);
+            for (Map<String, Object> child : children) {
+                insert(target, table.childTable(), child);
+            }
+        }
+    }
+
+    private static void upsert(JdbcTemplate target, String table, Map<String, Object> row) {
+        String columns = String.join(", ", row.keySet());
+        String updates = row.keySet().stream()
+                .filter(column -> !column.equalsIgnoreCase("id"))
+                .map(column -> column + " = VALUES(" + column + ")")
+                .collect(Collectors.joining(", "));
+        target.update("INSERT INTO " + table + " (" + columns + ") VALUES (" + placeholders(row) + ") "
+                + "ON DUPLICATE KEY UPDATE " + updates, row.values().toArray());
+    }
+
+    private static void insert(JdbcTemplate target, String table, Map<String, Object> row) {
+        target.update("INSERT INTO " + table + " (" + String.join(", ", row.keySet()) + ") VALUES ("
+                + placeholders(row) + ")", row.values().toArray());
+    }
+
+    private static String placeholders(Map<String, Object> row) {
+        return row.keySet().stream().map(column -> "?").collect(Collectors.joining(", "));
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final int sourceShard;
+        private final Set<Change> changes = new LinkedHashSet<>();
+
+        PendingChanges(int sourceShard) {
+            this.sourceShard = sourceShard;
+        }
+
+        @Override
+        public void afterCommit() {
+            replicate(sourceShard, new LinkedHashSet<>(changes));
+        }
+    }
+
+    private class Listener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+            PostCollectionRecreateEventListener, PostCollectionUpdateEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            changed(event.getEntity(), event.getId());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            changed(event.getEntity(), event.getId());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            changed(event.getEntity(), event.getId());
+        }
+
+        @Override
+        public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+            changed(event.getAffectedOwnerOrNull(), event.getAffectedOwnerIdOrNull());
+        }
+
+        @Override
+        public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+            changed(event.getAffectedOwnerOrNull(), event.getAffectedOwnerIdOrNull());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
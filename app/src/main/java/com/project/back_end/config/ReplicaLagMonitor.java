@@ -0,0 +1,62 @@
+package com.project.back_end.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+// Polls the replica's replication delay. Reads go to the replica only while the last probe succeeded
+// and the delay was within max-lag; a replica that is stopped, unreachable or too far behind is skipped.
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+
+    // Seconds behind the primary; negative when unknown
+    private volatile long lagSeconds = -1;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.maxLag = maxLag;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds < 0 ? Double.NaN : monitor.lagSeconds)
+                .description("Replication delay of the read replica")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .description("Whether read-only transactions are currently sent to the replica")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval:PT5S}")
+    public void probe() {
+        boolean wasUsable = usable;
+        try {
+            List<Long> lag = replica.query("SHOW REPLICA STATUS",
+                    (rs, row) -> rs.getObject("Seconds_Behind_Source") == null ? null : rs.getLong("Seconds_Behind_Source"));
+            lagSeconds = lag.isEmpty() || lag.get(0) == null ? -1 : lag.get(0);
+            usable = lagSeconds >= 0 && lagSeconds <= maxLag.toSeconds();
+        } catch (Exception e) {
+            lagSeconds = -1;
+            usable = false;
+            if (wasUsable) {
+                logger.warn("Replica lag probe failed: {}", e.getMessage());
+            }
+        }
+        if (wasUsable != usable) {
+            logger.info("Read replica {} (lag {} s)", usable ? "in use" : "bypassed", lagSeconds < 0 ? "unknown" : lagSeconds);
+        }
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+}
@@ -0,0 +1,37 @@
+package com.project.back_end.config;
+
+// Per-thread override that sends read-only work to the primary, e.g. for a user who has just written
+// and must read their own writes. Tasks handed to the bounded executors inherit the override (see AsyncConfig).
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static void forcePrimary() {
+        PRIMARY_FORCED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY_FORCED.remove();
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_FORCED.get());
+    }
+
+    // TaskDecorator: carries the caller's override to the thread that runs the task
+    public static Runnable propagate(Runnable task) {
+        boolean forced = isPrimaryForced();
+        return () -> {
+            Boolean previous = PRIMARY_FORCED.get();
+            PRIMARY_FORCED.set(forced ? Boolean.TRUE : null);
+            try {
+                task.run();
+            } finally {
+                PRIMARY_FORCED.set(previous);
+            }
+        };
+    }
+}
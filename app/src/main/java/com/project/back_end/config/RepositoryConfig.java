@@ -0,0 +1,46 @@
+package com.project.back_end.config;
+
+import com.project.back_end.repo.NaturalIdRepositoryImpl;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.config.BootstrapMode;
+
+// JPA repositories extend NaturalIdRepositoryImpl, so repositories that declare NaturalIdRepository get cached natural-id lookups.
+// Declaring the repositories here turns Spring Boot's repository auto-configuration off, so its
+// spring.data.jpa.repositories.bootstrap-mode property is honoured here instead (default or deferred).
+@Configuration
+public class RepositoryConfig {
+
+    // All appointments live in the one database unless ShardingConfig spreads them over shards
+    @Bean
+    @ConditionalOnProperty(name = "datasource.sharding.enabled", havingValue = "false", matchIfMissing = true)
+    public AppointmentShards appointmentShards() {
+        return AppointmentShards.unsharded();
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "spring.data.jpa.repositories.bootstrap-mode", havingValue = "default", matchIfMissing = true)
+    @EnableJpaRepositories(basePackages = "com.project.back_end.repo", repositoryBaseClass = NaturalIdRepositoryImpl.class)
+    public static class DefaultBootstrap {
+    }
+
+    // The EntityManagerFactory is built on the application task executor while the rest of the context starts;
+    // repositories are initialized once the context is refreshed, and block on the factory only when first used
+    @Configuration
+    @ConditionalOnProperty(name = "spring.data.jpa.repositories.bootstrap-mode", havingValue = "deferred")
+    @EnableJpaRepositories(basePackages = "com.project.back_end.repo", repositoryBaseClass = NaturalIdRepositoryImpl.class,
+            bootstrapMode = BootstrapMode.DEFERRED)
+    public static class DeferredBootstrap {
+
+        @Bean
+        public EntityManagerFactoryBuilderCustomizer entityManagerFactoryBootstrapExecutor(
+                @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor) {
+            return builder -> builder.setBootstrapExecutor(executor);
+        }
+    }
+}
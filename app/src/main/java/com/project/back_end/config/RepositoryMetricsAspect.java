@@ -0,0 +1,149 @@
+package com.project.back_end.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Times every call made through a Spring Data repository (JPA and Mongo, blocking and reactive)
+// and records how many rows it returned or changed, tagged by repository interface and method.
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private static final Logger slowQueryLogger = LoggerFactory.getLogger("repository.slow-query");
+
+    // Our own repository interfaces, as opposed to the Spring Data interfaces they extend
+    private static final String REPOSITORY_PACKAGE = "com.project.back_end.repo.";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration slowThreshold;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsAspect(MeterRegistry meterRegistry,
+                                   @Value("${repository.metrics.slow-threshold:PT0.5S}") Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowThreshold = slowThreshold;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryName(joinPoint.getTarget().getClass());
+        String method = joinPoint.getSignature().getName();
+        long start = System.nanoTime();
+
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            record(repository, method, System.nanoTime() - start, null, e);
+            throw e;
+        }
+
+        if (result instanceof Mono<?> mono) {
+            AtomicLong subscribed = new AtomicLong();
+            return mono
+                    .doOnSubscribe(subscription -> subscribed.set(System.nanoTime()))
+                    .doOnSuccess(value -> record(repository, method, System.nanoTime() - subscribed.get(), rows(value), null))
+                    .doOnError(e -> record(repository, method, System.nanoTime() - subscribed.get(), null, e));
+        }
+        if (result instanceof Flux<?> flux) {
+            AtomicLong subscribed = new AtomicLong();
+            AtomicLong emitted = new AtomicLong();
+            return flux
+                    .doOnSubscribe(subscription -> subscribed.set(System.nanoTime()))
+                    .doOnNext(value -> emitted.incrementAndGet())
+                    .doOnComplete(() -> record(repository, method, System.nanoTime() - subscribed.get(), emitted.get(), null))
+                    .doOnError(e -> record(repository, method, System.nanoTime() - subscribed.get(), null, e));
+        }
+
+        record(repository, method, System.nanoTime() - start, rows(result), null);
+        return result;
+    }
+
+    private void record(String repository, String method, long nanos, Long rows, Throwable error) {
+        Timer.builder("repository.invocations")
+                .description("Latency of Spring Data repository calls")
+                .tags("repository", repository, "method", method, "outcome", error == null ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(nanos));
+        if (rows != null) {
+            DistributionSummary.builder("repository.rows")
+                    .description("Rows returned or changed by Spring Data repository calls")
+                    .baseUnit("rows")
+                    .tags("repository", repository, "method", method)
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+
+        if (nanos >= slowThreshold.toNanos()) {
+            long millis = Duration.ofNanos(nanos).toMillis();
+            slowQueryLogger.atWarn()
+                    .addKeyValue("repository", repository)
+                    .addKeyValue("method", method)
+                    .addKeyValue("durationMs", millis)
+                    .addKeyValue("rows", rows)
+                    .addKeyValue("outcome", error == null ? "success" : "error")
+                    .log("Slow repository call {}.{} took {} ms", repository, method, millis);
+        }
+    }
+
+    private String repositoryName(Class<?> targetClass) {
+        return repositoryNames.computeIfAbsent(targetClass, type -> {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getName().startsWith(REPOSITORY_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+
+    // Streams are consumed after the call returns, so their row count is unknown here
+    private static Long rows(Object result) {
+        if (result == null) {
+            return 0L;
+        } else if (result instanceof Collection<?> collection) {
+            return (long) collection.size();
+        } else if (result instanceof Slice<?> slice) {
+            return (long) slice.getNumberOfElements();
+        } else if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1L : 0L;
+        } else if (result instanceof Number number) {
+            return number.longValue();
+        } else if (result instanceof Stream<?> || result instanceof Boolean) {
+            return null;
+        }
+        return 1L;
+    }
+
+// 1. **Metrics**:
+//    - `repository.invocations`: timer with a percentile histogram, tagged `repository`, `method` and `outcome`.
+//    - `repository.rows`: rows returned (or changed, for modifying queries), tagged `repository` and `method`.
+//    - Both are exposed at `/actuator/metrics/repository.invocations` and `/actuator/metrics/repository.rows` (filter with `?tag=repository:...`).
+
+// 2. **Slow-query log**:
+//    - Calls slower than `repository.metrics.slow-threshold` are logged at WARN on the `repository.slow-query` logger,
+//      with repository, method, duration, rows and outcome attached as key/value pairs.
+
+// 3. **Reactive repositories**:
+//    - For `Mono` and `Flux` results the time is measured from subscription to completion, when the query actually runs.
+}
@@ -0,0 +1,44 @@
+package com.project.back_end.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.catalina.Globals;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+
+// Leaves files of at least minSize to Tomcat's sendfile, which copies them from the file to the socket in the kernel
+// once the handler returns, instead of streaming them through the servlet's output buffer.
+// Only resources that are files on disk qualify (not those inside the application jar), and only on a connector
+// that supports sendfile; everything else is written as usual.
+class SendfileResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+    private final long minSize;
+
+    SendfileResourceHttpMessageConverter(long minSize) {
+        this.minSize = minSize;
+    }
+
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && Boolean.TRUE.equals(attributes.getRequest().getAttribute(Globals.SENDFILE_SUPPORTED_ATTR))
+                && resource.isFile()) {
+            long length = resource.contentLength();
+            if (length >= minSize) {
+                // Content-Length is already set from the same length
+                HttpServletRequest request = attributes.getRequest();
+                request.setAttribute(Globals.SENDFILE_FILENAME_ATTR, resource.getFile().getAbsolutePath());
+                request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, 0L);
+                request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, length);
+                return;
+            }
+        }
+        super.writeContent(resource, outputMessage);
+    }
+}
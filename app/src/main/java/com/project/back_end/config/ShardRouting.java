@@ -0,0 +1,23 @@
+package com.project.back_end.config;
+
+// Per-thread shard selection for appointment work, set by AppointmentShards around each shard-scoped unit of work.
+// Without a selection, connections go to shard 0, which also holds the authoritative copy of the reference tables.
+public final class ShardRouting {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardRouting() {
+    }
+
+    public static Integer current() {
+        return SHARD.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(shard);
+        }
+    }
+}
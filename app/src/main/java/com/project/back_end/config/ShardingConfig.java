@@ -0,0 +1,136 @@
+package com.project.back_end.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Appointment sharding by doctor, enabled with datasource.sharding.enabled=true (not combined with datasource.routing).
+// Shard 0 is spring.datasource.* (pool settings included), the others are datasource.sharding.shards[n].*;
+// every shard gets the full schema from the Flyway migrations. Appointments and archived appointments are spread over the shards (see AppointmentShards),
+// and the reference tables are copied to every shard by ReferenceDataReplicator.
+@Configuration
+@ConditionalOnProperty(name = "datasource.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardDataSources shardDataSources(DataSourceProperties primary, ShardingProperties properties,
+                                             Environment environment) {
+        List<HikariDataSource> shards = new ArrayList<>();
+        shards.add(primaryPool(primary, environment));
+        for (ShardingProperties.Shard shard : properties.shards()) {
+            shards.add(pool(shards.size(), shard.url(), shard.username(), shard.password(), shard.maximumPoolSize()));
+        }
+        return new ShardDataSources(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shardDataSources.all()));
+    }
+
+    // Migrates every shard, not only the one Spring Boot's Flyway would reach through the routing DataSource
+    @Bean
+    public FlywayMigrationStrategy shardedMigration(ShardDataSources shardDataSources) {
+        return flyway -> {
+            for (int shard = 0; shard < shardDataSources.count(); shard++) {
+                DataSource dataSource = shardDataSources.get(shard);
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(dataSource).load().migrate();
+                startAppointmentIdsAt(new JdbcTemplate(dataSource), AppointmentShards.firstAppointmentId(shard));
+            }
+        };
+    }
+
+    // Shard reads block on the shards' pools, so with virtual threads each one gets a virtual thread of its own
+    @Bean
+    public AsyncTaskExecutor shardExecutor(ShardingProperties properties, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("shard-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("shard-");
+        executor.setCorePoolSize(properties.fanOutPoolSize());
+        executor.setMaxPoolSize(properties.fanOutPoolSize());
+        executor.setQueueCapacity(100);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    @Bean
+    public AppointmentShards appointmentShards(ShardDataSources shardDataSources,
+                                               PlatformTransactionManager transactionManager,
+                                               @Qualifier("shardExecutor") AsyncTaskExecutor shardExecutor) {
+        return new AppointmentShards(shardDataSources.count(), transactionManager, shardExecutor);
+    }
+
+    @Bean
+    public ReferenceDataReplicator referenceDataReplicator(ShardDataSources shardDataSources,
+                                                           ShardingProperties properties,
+                                                           EntityManagerFactory entityManagerFactory,
+                                                           MeterRegistry meterRegistry) {
+        ReferenceDataReplicator replicator = new ReferenceDataReplicator(shardDataSources, meterRegistry);
+        replicator.register(entityManagerFactory);
+        if (properties.resyncOnStartup()) {
+            replicator.resync();
+        }
+        return replicator;
+    }
+
+    // Shard 0 is the unsharded DataSource, so it keeps the pool settings of spring.datasource.hikari.*
+    // (the virtual-threads profile relies on its maximum-pool-size and connection-timeout)
+    private static HikariDataSource primaryPool(DataSourceProperties primary, Environment environment) {
+        HikariDataSource dataSource = primary.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("shard-0");
+        return dataSource;
+    }
+
+    private static HikariDataSource pool(int shard, String url, String username, String password, int maximumPoolSize) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("shard-" + shard);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        return dataSource;
+    }
+
+    // Moves the shard's auto-increment into its ID range, unless it already hands out IDs from there
+    private static void startAppointmentIdsAt(JdbcTemplate jdbc, long firstId) {
+        Long maxId = jdbc.queryForObject("SELECT GREATEST("
+                + "(SELECT COALESCE(MAX(id), 0) FROM appointment), "
+                + "(SELECT COALESCE(MAX(id), 0) FROM archived_appointment))", Long.class);
+        if (maxId != null && maxId < firstId && firstId > 1) {
+            jdbc.execute("ALTER TABLE appointment AUTO_INCREMENT = " + firstId);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.back_end.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+// datasource.sharding.*: the shards after shard 0 (which is spring.datasource.*), in shard order.
+// The order must never change once appointments were written, and shards may only be appended.
+@ConfigurationProperties("datasource.sharding")
+public record ShardingProperties(@DefaultValue List<Shard> shards,
+                                 @DefaultValue("16") int fanOutPoolSize,
+                                 @DefaultValue("true") boolean resyncOnStartup) {
+
+    public record Shard(String url, String username, String password, @DefaultValue("10") int maximumPoolSize) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.web.WebProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Serves the static front end (spring.web.resources.static-locations) so that repeat page loads barely reach the server.
+// - Everything under js/ and assets/ is also served under /v-<fingerprint>/, where the fingerprint is a hash of all
+//   those files; such URLs never change content, so they are cached as immutable. The HTML pages link to them
+//   (AssetLinkTransformer), and the modules' relative imports and the stylesheets' relative url()s stay inside the
+//   fingerprinted path by themselves, so scripts and stylesheets are served byte for byte as built.
+// - The pages, and the unversioned asset URLs the scripts build at runtime, are revalidated on every use.
+// - The build stores gzip and brotli variants next to the scripts and stylesheets (see pom.xml), which are served
+//   to clients that accept them.
+// - Large files in a static location on the file system (as in the Docker image) go out through Tomcat's sendfile.
+@Configuration
+public class StaticAssetConfig implements WebMvcConfigurer {
+
+    // Directories below the static locations that are fingerprinted
+    private static final List<String> ASSET_DIRECTORIES = List.of("js/", "assets/");
+    private static final String[] COMPRESSED_VARIANTS = {".gz", ".br"};
+
+    private final String[] locations;
+    private final String fingerprint;
+    private final Duration maxAge;
+
+    public StaticAssetConfig(WebProperties webProperties,
+                             @Value("${static-assets.max-age:P365D}") Duration maxAge) {
+        this.locations = webProperties.getResources().getStaticLocations();
+        this.fingerprint = fingerprint(locations);
+        this.maxAge = maxAge;
+    }
+
+    // Path prefix of the fingerprinted asset URLs, e.g. /v-0123456789abcdef
+    public String versionPrefix() {
+        return "/v-" + fingerprint;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String directory : ASSET_DIRECTORIES) {
+            String[] directoryLocations = Arrays.stream(locations).map(location -> location + directory)
+                    .toArray(String[]::new);
+            registry.addResourceHandler(versionPrefix() + "/" + directory + "**")
+                    .addResourceLocations(directoryLocations)
+                    .setCacheControl(CacheControl.maxAge(maxAge).cachePublic().immutable())
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver());
+            registry.addResourceHandler("/" + directory + "**")
+                    .addResourceLocations(directoryLocations)
+                    .setCacheControl(CacheControl.noCache())
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver());
+        }
+
+        // A page's validator covers the fingerprint too, so a cached page never keeps pointing at replaced assets
+        AssetLinkTransformer linkTransformer = new AssetLinkTransformer(versionPrefix(), ASSET_DIRECTORIES);
+        registry.addResourceHandler("/pages/**")
+                .addResourceLocations(Arrays.stream(locations).map(location -> location + "pages/")
+                        .toArray(String[]::new))
+                .setCacheControl(CacheControl.noCache())
+                .setUseLastModified(false)
+                .setEtagGenerator(this::pageEtag)
+                .resourceChain(true)
+                .addTransformer(linkTransformer);
+        registry.addResourceHandler("/*.html")
+                .addResourceLocations(locations)
+                .setCacheControl(CacheControl.noCache())
+                .setUseLastModified(false)
+                .setEtagGenerator(this::pageEtag)
+                .resourceChain(true)
+                .addTransformer(linkTransformer);
+    }
+
+    // The resource handlers only exist once the handler mapping is built, so they get the converter from here
+    @Bean
+    public static BeanPostProcessor sendfileResourceConverter(
+            @Value("${static-assets.sendfile-min-size:48KB}") DataSize minSize) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("resourceHandlerMapping".equals(beanName) && bean instanceof SimpleUrlHandlerMapping mapping) {
+                    SendfileResourceHttpMessageConverter converter =
+                            new SendfileResourceHttpMessageConverter(minSize.toBytes());
+                    mapping.getHandlerMap().values().forEach(handler -> {
+                        if (handler instanceof ResourceHttpRequestHandler resourceHandler) {
+                            resourceHandler.setResourceHttpMessageConverter(converter);
+                        }
+                    });
+                }
+                return bean;
+            }
+        };
+    }
+
+    private String pageEtag(Resource page) {
+        try {
+            return fingerprint + "-" + page.lastModified();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Hash over the paths and contents of every asset file, in path order; the compressed variants are left out,
+    // as they follow from the originals
+    private static String fingerprint(String[] locations) {
+        try {
+            PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String location : locations) {
+                for (String directory : ASSET_DIRECTORIES) {
+                    Resource root = resolver.getResource(location + directory);
+                    Map<String, Resource> files = new TreeMap<>();
+                    for (Resource file : resolver.getResources(location + directory + "**")) {
+                        String path = relativePath(root, file);
+                        if (file.isReadable() && !path.isEmpty() && !path.endsWith("/")
+                                && Arrays.stream(COMPRESSED_VARIANTS).noneMatch(path::endsWith)) {
+                            files.put(directory + path, file);
+                        }
+                    }
+                    for (Map.Entry<String, Resource> file : files.entrySet()) {
+                        digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+                        digest.update(DigestUtils.md5Digest(file.getValue().getContentAsByteArray()));
+                    }
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the static assets", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String relativePath(Resource root, Resource file) throws IOException {
+        if (root.isFile() && file.isFile()) {
+            Path rootPath = root.getFile().toPath().toAbsolutePath().normalize();
+            return rootPath.relativize(file.getFile().toPath().toAbsolutePath().normalize()).toString()
+                    .replace(File.separatorChar, '/');
+        }
+        return file.getURL().toString().substring(root.getURL().toString().length());
+    }
+}
@@ -1,27 +1,38 @@
 package com.project.back_end.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.services.AppointmentService;
 import com.project.back_end.services.UtilityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/appointments")
 public class AppointmentController {
 
+    // Longest range (in days) a single export may cover
+    private static final long MAX_EXPORT_DAYS = 31;
+
     private final AppointmentService appointmentService;
     private final UtilityService utilityService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public AppointmentController(AppointmentService appointmentService, UtilityService utilityService) {
+    public AppointmentController(AppointmentService appointmentService, UtilityService utilityService,
+                                 ObjectMapper objectMapper) {
         this.appointmentService = appointmentService;
         this.utilityService = utilityService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/{date}/{patientName}/{token}")
@@ -29,7 +40,7 @@ public class AppointmentController {
                                                                @PathVariable String patientName,
                                                                @PathVariable String token) {
         ResponseEntity<Map<String, String>> validationResponse = utilityService.validateToken(token, "doctor");
-        if (validationResponse.getStatusCode() != HttpStatus.OK) {
+        if (validationResponse != null) {
             return new ResponseEntity<>(Map.of("error", "Unauthorized access"), HttpStatus.UNAUTHORIZED);
         }
 
@@ -46,7 +57,7 @@ public class AppointmentController {
                                                                @PathVariable String token) {
         ResponseEntity<Map<String, String>> validationResponse = utilityService.validateToken(token, "patient");
 
-        if (validationResponse.getStatusCode() != HttpStatus.OK) {
+        if (validationResponse != null) {
             return new ResponseEntity<>(Map.of("error", "Unauthorized access"), HttpStatus.UNAUTHORIZED);
         }
 
@@ -69,7 +80,7 @@ public class AppointmentController {
     public ResponseEntity<Map<String, String>> updateAppointment(@RequestBody Appointment appointment,
                                                                  @PathVariable String token) {
         ResponseEntity<Map<String, String>> validationResponse = utilityService.validateToken(token, "patient");
-        if (validationResponse.getStatusCode() != HttpStatus.OK) {
+        if (validationResponse != null) {
             return new ResponseEntity<>(Map.of("error", "Unauthorized access"), HttpStatus.UNAUTHORIZED);
         }
 
@@ -80,10 +91,49 @@ public class AppointmentController {
     public ResponseEntity<Map<String, String>> cancelAppointment(@PathVariable Long id,
                                                                  @PathVariable String token) {
         ResponseEntity<Map<String, String>> validationResponse = utilityService.validateToken(token, "patient");
-        if (validationResponse.getStatusCode() != HttpStatus.OK) {
+        if (validationResponse != null) {
             return new ResponseEntity<>(Map.of("error", "Unauthorized access"), HttpStatus.UNAUTHORIZED);
         }
-        return appointmentService.cancelAppointment(id,"");
+        return appointmentService.cancelAppointment(id, token);
+    }
+
+    // Every outcome is a StreamingResponseBody, as Spring only streams bodies declared with that type;
+    // errors are written as the same {"error": ...} JSON the other endpoints return
+    @GetMapping("/export/{user}/{from}/{to}/{token}")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(@PathVariable String user,
+                                                                    @PathVariable String from,
+                                                                    @PathVariable String to,
+                                                                    @PathVariable String token) {
+        if (!"doctor".equalsIgnoreCase(user) && !"admin".equalsIgnoreCase(user)) {
+            return exportError("Unauthorized access", HttpStatus.UNAUTHORIZED);
+        }
+        ResponseEntity<Map<String, String>> validationResponse = utilityService.validateToken(token, user);
+        if (validationResponse != null) {
+            return exportError("Unauthorized access", HttpStatus.UNAUTHORIZED);
+        }
+
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from);
+            toDate = LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            return exportError("Dates must be given as yyyy-MM-dd", HttpStatus.BAD_REQUEST);
+        }
+        if (toDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_EXPORT_DAYS) {
+            return exportError("Export range must be between 1 and " + MAX_EXPORT_DAYS + " days", HttpStatus.BAD_REQUEST);
+        }
+
+        StreamingResponseBody body = out -> appointmentService.exportAppointments(user, token, fromDate, toDate, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportError(String message, HttpStatus status) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, Map.of("error", message)));
     }
 
 // 1. Set Up the Controller Class:
@@ -128,4 +178,12 @@ public class AppointmentController {
 //    - Calls `AppointmentService` to handle the cancellation process and returns the result.
 
 
+// 7. Define the `exportAppointments` Method:
+//    - Handles HTTP GET requests to export appointments for a date range (at most 31 days) as NDJSON.
+//    - Accepts the user role (`"doctor"` or `"admin"`), start date, end date and token as path variables.
+//    - Doctors receive their own appointments; admins receive the whole clinic's.
+//    - Malformed dates, or a `from` date after `to`, are answered with `400 Bad Request`.
+//    - Returns a `StreamingResponseBody`, so rows are written to the client as they are read from the database.
+
+
 }
@@ -51,7 +51,7 @@ public class DoctorController {
                                                         @PathVariable String date,
                                                         @PathVariable String token) {
         ResponseEntity<Map<String, String>> validation = utilityService.validateToken(token, user);
-        if (!validation.getStatusCode().is2xxSuccessful()) {
+        if (validation != null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Unauthorized access"));
         }
@@ -80,7 +80,7 @@ public class DoctorController {
     public ResponseEntity<Object> saveDoctor(@PathVariable String token,
                                              @RequestBody Doctor doctor) {
         ResponseEntity<Map<String, String>> validation = utilityService.validateToken(token, "admin");
-        if (!validation.getStatusCode().is2xxSuccessful()) {
+        if (validation != null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Unauthorized access"));
         }
@@ -111,7 +111,7 @@ public class DoctorController {
     public ResponseEntity<Object> updateDoctor(@PathVariable String token,
                                                @RequestBody Doctor doctor) {
         ResponseEntity<Map<String, String>> validation = utilityService.validateToken(token, "admin");
-        if (!validation.getStatusCode().is2xxSuccessful()) {
+        if (validation != null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Unauthorized access"));
         }
@@ -135,7 +135,7 @@ public class DoctorController {
     public ResponseEntity<Object> deleteDoctor(@PathVariable Long id,
                                                @PathVariable String token) {
         ResponseEntity<Map<String, String>> validation = utilityService.validateToken(token, "admin");
-        if (!validation.getStatusCode().is2xxSuccessful()) {
+        if (validation != null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Unauthorized access"));
         }
@@ -2,42 +2,62 @@ package com.project.back_end.controllers;
 
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Patient;
+import com.project.back_end.services.PatientHomeService;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.UtilityService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/patient")
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientHomeService patientHomeService;
     private final UtilityService utilityService;
+    private final Executor mysqlExecutor;
 
     @Autowired
-    public PatientController(PatientService patientService, UtilityService utilityService) {
+    public PatientController(PatientService patientService,
+                             PatientHomeService patientHomeService,
+                             UtilityService utilityService,
+                             @Qualifier("mysqlExecutor") Executor mysqlExecutor) {
         this.patientService = patientService;
+        this.patientHomeService = patientHomeService;
         this.utilityService = utilityService;
+        this.mysqlExecutor = mysqlExecutor;
     }
 
     // 1. Get Patient Details by Token
     @GetMapping("/{token}")
-    public Object getPatient(@PathVariable String token) {
-        ResponseEntity<Map<String, String>> validation =
-                utilityService.validateToken(token, "patient");
-        if (validation == null) {
-            return patientService.getPatientDetails(token);
-        }
-        return validation;
+    public CompletableFuture<Object> getPatient(@PathVariable String token) {
+        return onMysql(() -> {
+            ResponseEntity<Map<String, String>> validation =
+                    utilityService.validateToken(token, "patient");
+            if (validation == null) {
+                return patientService.getPatientDetails(token);
+            }
+            return validation;
+        });
+    }
+
+    // 2. Get the Patient Home Page
+    @GetMapping("/home/{token}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getPatientHome(@PathVariable String token) {
+        return patientHomeService.getPatientHome(token);
     }
 
-    // 2. Create a New Patient
     @PostMapping
     public ResponseEntity<Map<String, Object>> createPatient(@Valid @RequestBody Patient patient) {
         if (utilityService.validatePatient(patient)) {
@@ -60,32 +80,49 @@ public class PatientController {
 
     // 4. Get Patient Appointments
     @GetMapping("/{id}/{token}")
-    public Object getPatientAppointments(
+    public CompletableFuture<Object> getPatientAppointments(
             @PathVariable Long id,
-            @PathVariable String token
+            @PathVariable String token,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
     ) {
-        ResponseEntity<Map<String, String>> validation =
-                utilityService.validateToken(token, "patient");
-        if (validation == null) {
-            return patientService.getPatientAppointment(id, token);
-        }
-        return validation;
+        return onMysql(() -> {
+            ResponseEntity<Map<String, String>> validation =
+                    utilityService.validateToken(token, "patient");
+            if (validation == null) {
+                return patientService.getPatientAppointment(id, token, cursor, size);
+            }
+            return validation;
+        });
     }
 
     // 5. Filter Patient Appointments
     @GetMapping("/filter/{condition}/{name}/{token}")
-    public Object filterPatientAppointments(
+    public CompletableFuture<Object> filterPatientAppointments(
             @PathVariable String condition,
             @PathVariable String name,
-            @PathVariable String token
+            @PathVariable String token,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
     ) {
+        return onMysql(() -> {
+            ResponseEntity<Map<String, String>> validation =
+                    utilityService.validateToken(token, "patient");
+            if (validation == null) {
+                return utilityService.filterPatient(token, condition, name, cursor, size);
+            }
+            return validation;
+        });
+    }
 
-        ResponseEntity<Map<String, String>> validation =
-                utilityService.validateToken(token, "patient");
-        if (validation == null) {
-            return utilityService.filterPatient(condition, name, token);
+    // Runs a handler's MySQL work on the bounded MySQL executor and releases the servlet thread;
+    // when the executor's queue is full the request is turned away instead of waiting for a thread
+    private CompletableFuture<Object> onMysql(Supplier<Object> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, mysqlExecutor);
+        } catch (RejectedExecutionException ex) {
+            return CompletableFuture.completedFuture(utilityService.error("Service busy, please retry.", 503));
         }
-        return validation;
     }
 
 // 1. Set Up the Controller Class:
@@ -96,6 +133,8 @@ public class PatientController {
 // 2. Autowire Dependencies:
 //    - Inject `PatientService` to handle patient-specific logic such as creation, retrieval, and appointments.
 //    - Inject the shared `Service` class for tasks like token validation and login authentication.
+//    - Inject the bounded `mysqlExecutor`: the read endpoints return a `CompletableFuture` and run their MySQL work there, so servlet threads are released while it is in flight.
+//    - A full executor queue answers `503 Service Unavailable` right away, so a slow MySQL cannot tie up every servlet thread.
 
 
 // 3. Define the `getPatient` Method:
@@ -123,6 +162,7 @@ public class PatientController {
 //    - Requires the patient ID, token, and user role as path variables.
 //    - Validates the token using the shared service.
 //    - If valid, retrieves the patient's appointment data from `PatientService`; otherwise, returns a validation error.
+//    - Optional `cursor` and `size` query parameters select the page; the response includes `nextCursor` for the following one.
 
 
 // 7. Define the `filterPatientAppointment` Method:
@@ -130,6 +170,12 @@ public class PatientController {
 //    - Accepts filtering parameters: `condition`, `name`, and a token.
 //    - Token must be valid for a `"patient"` role.
 //    - If valid, delegates filtering logic to the shared service and returns the filtered result.
+//    - Accepts the same optional `cursor` and `size` query parameters as `getPatientAppointment`.
+
+
+// 8. Define the `getPatientHome` Method:
+//    - Handles HTTP GET requests for the patient landing data: details, upcoming appointments and recent prescriptions in one response.
+//    - The token is validated once by `PatientHomeService`, which fetches the three parts concurrently.
 
 }
 
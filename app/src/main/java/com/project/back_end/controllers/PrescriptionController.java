@@ -1,13 +1,15 @@
 package com.project.back_end.controllers;
 import com.project.back_end.models.Prescription;
 import com.project.back_end.services.PrescriptionService;
-import com.project.back_end.services.UtilityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("${api.path}" + "prescription")
@@ -21,17 +23,15 @@ public class PrescriptionController {
 
 // 2. Autowire Dependencies:
 //    - Inject `PrescriptionService` to handle logic related to saving and fetching prescriptions.
-//    - Inject the shared `Service` class for token validation and role-based access control.
+//    - Token validation and role-based access control go through `PrescriptionService.isAuthorized`, which runs the check on the MySQL executor.
 //    - Inject `AppointmentService` to update appointment status after a prescription is issued.
 
 
     private final PrescriptionService prescriptionService;
-    private final UtilityService utilityService;
 
     @Autowired
-    public PrescriptionController(PrescriptionService prescriptionService, UtilityService utilityService) {
+    public PrescriptionController(PrescriptionService prescriptionService) {
         this.prescriptionService = prescriptionService;
-        this.utilityService = utilityService;
     }
 
 
@@ -41,19 +41,18 @@ public class PrescriptionController {
 //    - Validates the token for the `"doctor"` role.
 //    - If the token is valid, updates the status of the corresponding appointment to reflect that a prescription has been added.
 //    - Delegates the saving logic to `PrescriptionService` and returns a response indicating success or failure.
+//    - Like every endpoint in this controller, it returns a `Mono`: the servlet thread is released while MongoDB works, and the response is written when the `Mono` completes.
+//    - The token check itself reads MySQL, so it also runs off the servlet thread, on the MySQL executor (`PrescriptionService.isAuthorized`).
 
     @PostMapping("/{token}")
-    public ResponseEntity<Map<String, String>> savePrescription(@RequestBody Prescription prescription,
-                                                                @PathVariable String token) {
-        // Validate token for role "doctor"
-        ResponseEntity<Map<String, String>> validation = utilityService.validateToken(token, "doctor");
-        if (!validation.getStatusCode().is2xxSuccessful()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Unauthorized access"));
-        }
-
-        // Proceed to save prescription
-        return prescriptionService.savePrescription(prescription);
+    public Mono<ResponseEntity<Map<String, String>>> savePrescription(@RequestBody Prescription prescription,
+                                                                      @PathVariable String token) {
+        // Validate token for role "doctor", then save the prescription
+        return prescriptionService.isAuthorized(token, "doctor")
+                .flatMap(authorized -> authorized
+                        ? prescriptionService.savePrescription(prescription)
+                        : Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(Map.of("error", "Unauthorized access"))));
     }
 
 
@@ -66,23 +65,77 @@ public class PrescriptionController {
 
     // 2. Get Prescription by Appointment ID
     @GetMapping("/{appointmentId}/{token}")
-    public ResponseEntity<Map<String, Object>> getPrescription(@PathVariable Long appointmentId,
-                                                               @PathVariable String token) {
-        // Validate token for role "doctor"
-        ResponseEntity<Map<String, String>> validation = utilityService.validateToken(token, "doctor");
-        if (!validation.getStatusCode().is2xxSuccessful()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Unauthorized access"));
-        }
+    public Mono<ResponseEntity<Map<String, Object>>> getPrescription(@PathVariable Long appointmentId,
+                                                                     @PathVariable String token) {
+        // Validate token for role "doctor", then retrieve the prescription
+        return whenAuthorized(token, "doctor", () -> prescriptionService.getPrescription(appointmentId));
+    }
+
+
+// 5. Define the `getPrescriptions` Method:
+//    - Handles HTTP GET requests to retrieve the prescriptions of many appointments at once (`?appointmentIds=1,2,3`).
+//    - Validates the token for the `"doctor"` role.
+//    - Returns the prescriptions found and the appointment IDs that have none, using a single database query.
+
+    // 3. Get Prescriptions for a batch of Appointment IDs
+    @GetMapping("/batch/{token}")
+    public Mono<ResponseEntity<Map<String, Object>>> getPrescriptions(@RequestParam List<Long> appointmentIds,
+                                                                      @PathVariable String token) {
+        return whenAuthorized(token, "doctor", () -> prescriptionService.getPrescriptions(appointmentIds));
+    }
+
 
-        // Retrieve prescription
-        ResponseEntity<Map<String, Object>> response = prescriptionService.getPrescription(appointmentId);
-        if (response.getBody() == null || response.getBody().isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("message", "No prescription found for this appointment"));
+// 6. Define the `savePrescriptions` Method:
+//    - Handles HTTP POST requests to save a batch of prescriptions in one request.
+//    - Accepts a list of `Prescription` objects in the request body and a doctor’s token as a path variable.
+//    - Validates the token for the `"doctor"` role, then delegates to `PrescriptionService`, which returns a result for every item.
+
+    // 4. Save a batch of Prescriptions
+    @PostMapping("/bulk/{token}")
+    public Mono<ResponseEntity<Map<String, Object>>> savePrescriptions(@RequestBody List<Prescription> prescriptions,
+                                                                       @PathVariable String token) {
+        return whenAuthorized(token, "doctor", () -> prescriptionService.savePrescriptions(prescriptions));
+    }
+
+
+// 7. Define the `getPatientHistory` Method:
+//    - Handles HTTP GET requests for a patient's prescription history, newest first, one page at a time (`?page=0&size=20`).
+//    - Accepts the patient ID, the user role (`"doctor"` or `"patient"`) and the token as path variables.
+//    - A patient may only read their own history.
+
+    // 5. Get a Patient's Prescription History
+    @GetMapping("/patient/{patientId}/{user}/{token}")
+    public Mono<ResponseEntity<Map<String, Object>>> getPatientHistory(@PathVariable Long patientId,
+                                                                       @PathVariable String user,
+                                                                       @PathVariable String token,
+                                                                       @RequestParam(defaultValue = "0") int page,
+                                                                       @RequestParam(required = false) Integer size) {
+        if (!"doctor".equalsIgnoreCase(user) && !"patient".equalsIgnoreCase(user)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Unauthorized access")));
         }
+        return whenAuthorized(token, user, () -> prescriptionService.getPatientHistory(user, token, patientId, page, size));
+    }
+
+
+// 8. Define the `getMedicationUsage` Method:
+//    - Handles HTTP GET requests for the doctor's medication usage report (prescriptions and distinct patients per medication).
+//    - Validates the token for the `"doctor"` role.
+
+    // 6. Get the Doctor's Medication Usage
+    @GetMapping("/medications/{token}")
+    public Mono<ResponseEntity<Map<String, Object>>> getMedicationUsage(@PathVariable String token) {
+        return whenAuthorized(token, "doctor", () -> prescriptionService.getMedicationUsage(token));
+    }
 
-        return response;
+    // Runs the endpoint once the token is validated (on the MySQL pool, see PrescriptionService.isAuthorized)
+    private Mono<ResponseEntity<Map<String, Object>>> whenAuthorized(String token, String user,
+                                                                     Supplier<Mono<ResponseEntity<Map<String, Object>>>> endpoint) {
+        return prescriptionService.isAuthorized(token, user)
+                .flatMap(authorized -> authorized
+                        ? endpoint.get()
+                        : Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(Map.of("error", "Unauthorized access"))));
     }
 
 }
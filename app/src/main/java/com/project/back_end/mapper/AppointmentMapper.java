@@ -2,6 +2,7 @@ package com.project.back_end.mapper;
 
 import com.project.back_end.DTO.AppointmentDTO;
 import com.project.back_end.models.Appointment;
+import com.project.back_end.models.ArchivedAppointment;
 
 public class AppointmentMapper {
 
@@ -23,4 +24,23 @@ public class AppointmentMapper {
                 appointment.getStatus()
         );
     }
+
+    public static AppointmentDTO from(ArchivedAppointment appointment) {
+        if (appointment == null) {
+            return null;
+        }
+
+        return new AppointmentDTO(
+                appointment.getId(),
+                appointment.getDoctor().getId(),
+                appointment.getDoctor().getName(),
+                appointment.getPatient().getId(),
+                appointment.getPatient().getName(),
+                appointment.getPatient().getEmail(),
+                appointment.getPatient().getPhone(),
+                appointment.getPatient().getAddress(),
+                appointment.getAppointmentTime(),
+                appointment.getStatus()
+        );
+    }
 }
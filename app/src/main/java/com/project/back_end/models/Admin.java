@@ -6,11 +6,19 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 // @Entity annotation:
 //    - Marks the class as a JPA entity, which means it represents a table in the database.
 //    - It is required for persistence frameworks like Hibernate to map the class to a database table.
+// @Cache annotation:
+//    - Admins are checked on every admin request, so they are kept in Hibernate's second-level cache ("admins" region in application.conf).
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "admins")
+@NaturalIdCache(region = "admins-by-username")
 public class Admin {
 
     // 1. 'id' field:
@@ -29,7 +37,9 @@ public class Admin {
     //      - Represents the username of the admin.
     //      - Used to log into the system.
     //      - @NotNull validation ensures that this field cannot be null when creating or updating an Admin.
+    //      - @NaturalId makes it the admin's unique business key, so lookups by username are resolved from the natural-id cache.
     @NotNull(message = "username cannot be null")
+    @NaturalId(mutable = true)
     private String username;
 
     // 3. 'password' field:
@@ -69,8 +79,11 @@ public class Admin {
     }
 
     // 4. Constructor(s):
-    //    - A no-argument constructor is implicitly provided, required by JPA for entity creation.
-    //    - A parameterized constructor can be added as needed.
+    //    - A no-argument constructor is required by JPA (and used by Jackson) for entity creation.
+    //    - It must be declared, since the parameterized constructor below replaces the implicit one.
+
+    public Admin() {
+    }
 
     public Admin(Long id, String username, String password) {
         this.id = id;
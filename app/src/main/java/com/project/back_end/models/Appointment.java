@@ -11,7 +11,26 @@ import java.time.LocalTime;
 // @Entity annotation:
 //    - Marks the class as a JPA entity, meaning it represents a table in the database.
 //    - Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
+// @NamedEntityGraph annotations:
+//    - Both associations are lazy; each use case loads only what it needs through a named graph.
+//    - "Appointment.patient" is used when cancelling (the patient's email is checked).
+//    - "Appointment.doctorAndPatient" is used wherever an appointment is mapped to an AppointmentDTO.
+// @Table indexes:
+//    - (doctor_id, appointment_time) serves the doctor day view, availability and conflict checks.
+//    - (status, appointment_time) lets the status job find elapsed scheduled appointments without a table scan.
+//    - (patient_id, appointment_time) backs the keyset-paginated patient history (InnoDB appends the id to every secondary index).
+//    - (patient_id, status, appointment_time) serves a patient's upcoming or past appointments in time order.
+//    - The schema itself is managed by the Flyway migrations in db/migration; these declarations mirror them.
 @Entity
+@NamedEntityGraph(name = "Appointment.patient", attributeNodes = @NamedAttributeNode("patient"))
+@NamedEntityGraph(name = "Appointment.doctorAndPatient",
+        attributeNodes = {@NamedAttributeNode("doctor"), @NamedAttributeNode("patient")})
+@Table(indexes = {
+        @Index(name = "idx_appointment_doctor_time", columnList = "doctor_id, appointment_time"),
+        @Index(name = "idx_appointment_status_time", columnList = "status, appointment_time"),
+        @Index(name = "idx_appointment_patient_time", columnList = "patient_id, appointment_time"),
+        @Index(name = "idx_appointment_patient_status_time", columnList = "patient_id, status, appointment_time")
+})
 public class Appointment {
 
 // 1. 'id' field:
@@ -29,10 +48,11 @@ public class Appointment {
 //    - Description:
 //      - Represents the doctor assigned to this appointment.
 //      - The @ManyToOne annotation defines the relationship, indicating many appointments can be linked to one doctor.
+//      - It is fetched lazily: reading the doctor's ID does not load the doctor row.
 //      - The @NotNull annotation ensures that an appointment must be associated with a doctor when created.
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Doctor doctor;
 
 // 3. 'patient' field:
@@ -40,10 +60,11 @@ public class Appointment {
 //    - Description:
 //      - Represents the patient assigned to this appointment.
 //      - The @ManyToOne annotation defines the relationship, indicating many appointments can be linked to one patient.
+//      - It is fetched lazily: reading the patient's ID does not load the patient row.
 //      - The @NotNull annotation ensures that an appointment must be associated with a patient when created.
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Patient patient;
 
 // 4. 'appointmentTime' field:
@@ -104,9 +125,12 @@ public class Appointment {
     }
 
 // 9. Constructor(s):
-//    - A no-argument constructor is implicitly provided by JPA for entity creation.
+//    - A no-argument constructor is required by JPA (and used by Jackson) for entity creation.
 //    - A parameterized constructor can be added as needed to initialize fields.
 
+    public Appointment() {
+    }
+
     public Appointment(Long id, Doctor doctor, Patient patient, LocalDateTime appointmentTime, int status) {
         this.id = id;
         this.doctor = doctor;
@@ -0,0 +1,80 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// @Entity and @Immutable annotations:
+//    - Maps the archived_appointment table, which holds completed appointments moved out of the hot appointment table
+//      by AppointmentArchiveJob once they are older than appointments.archive-job.age.
+//    - Archived appointments are history: @Immutable makes Hibernate skip dirty checking and never update them.
+// @Table indexes:
+//    - (patient_id, appointment_time) backs the patient history, which reads this table alongside appointment.
+//    - (doctor_id, appointment_time) serves a doctor's past appointments.
+@Entity
+@Immutable
+@Table(name = "archived_appointment", indexes = {
+        @Index(name = "idx_archived_appointment_patient_time", columnList = "patient_id, appointment_time"),
+        @Index(name = "idx_archived_appointment_doctor_time", columnList = "doctor_id, appointment_time")
+})
+public class ArchivedAppointment {
+
+// 1. 'id' field:
+//    - The id the appointment had in the appointment table, so prescriptions (keyed by appointment id) still match.
+
+    @Id
+    private Long id;
+
+// 2. 'doctor' and 'patient' fields:
+//    - Lazy references, loaded by the queries that need them.
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Doctor doctor;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Patient patient;
+
+// 3. 'appointmentTime' and 'status' fields:
+//    - Copied unchanged from the appointment.
+
+    private LocalDateTime appointmentTime;
+
+    private int status;
+
+// 4. 'archivedAt' field:
+//    - When the appointment was moved to the archive.
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+// 5. Constructor and getters:
+//    - Rows are only written by the archive job's INSERT ... SELECT, so there are no setters.
+
+    protected ArchivedAppointment() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
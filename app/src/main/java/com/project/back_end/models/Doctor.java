@@ -6,13 +6,22 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.List;
 
 // @Entity annotation:
 //    - Marks the class as a JPA entity, meaning it represents a table in the database.
 //    - Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
+// @Cache annotation:
+//    - Doctors are read on almost every request and change rarely, so they are kept in Hibernate's second-level cache ("doctors" region in application.conf).
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctors")
+@NaturalIdCache(region = "doctors-by-email")
+@NamedEntityGraph(name = "Doctor.availableTimes", attributeNodes = @NamedAttributeNode("availableTimes"))
 public class Doctor {
 
 // 1. 'id' field:
@@ -54,9 +63,11 @@ public class Doctor {
 //      - Represents the doctor's email address.
 //      - The @NotNull annotation ensures that an email address is required.
 //      - The @Email annotation validates that the email address follows a valid email format (e.g., doctor@example.com).
+//      - The @NaturalId annotation makes it the doctor's unique business key, so lookups by email are resolved from the natural-id cache.
 
     @NotNull
     @Email
+    @NaturalId(mutable = true)
     private String email;
 
 // 5. 'password' field:
@@ -89,8 +100,11 @@ public class Doctor {
 //      - Represents the available times for the doctor in a list of time slots.
 //      - Each time slot is represented as a string (e.g., "09:00-10:00", "10:00-11:00").
 //      - The @ElementCollection annotation ensures that the list of time slots is stored as a separate collection in the database.
+//      - It is fetched lazily; queries whose results are returned to the client load it through the "Doctor.availableTimes" entity graph.
+//      - The collection is cached with the doctor, so availability checks after a cached lookup do not query it either.
 
-    @ElementCollection(fetch=FetchType.EAGER)
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor-available-times")
     private List<String> availableTimes;
 
 // 8. Getters and Setters:
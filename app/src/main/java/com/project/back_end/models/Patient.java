@@ -1,19 +1,34 @@
 package com.project.back_end.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import java.text.Normalizer;
+import java.util.Locale;
 
 // @Entity annotation:
 //    - Marks the class as a JPA entity, meaning it represents a table in the database.
 //    - Required for persistence frameworks (e.g., Hibernate) to map the class to a database table.
+// @Cache annotation:
+//    - Patients are looked up by token on most requests, so they are kept in Hibernate's second-level cache ("patients" region in application.conf).
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "patients")
+@NaturalIdCache(region = "patients-by-email")
 public class Patient {
 
 // 1. 'id' name:
@@ -44,9 +59,11 @@ public class Patient {
 //      - Represents the patient's email address.
 //      - The @NotNull annotation ensures that an email address must be provided.
 //      - The @Email annotation validates that the email address follows a valid email format (e.g., patient@example.com).
+//      - The @NaturalId annotation makes it the patient's unique business key, so lookups by email are resolved from the natural-id cache.
 
     @NotNull
     @Email
+    @NaturalId(mutable = true)
     private String email;
 
 // 4. 'password' name:
@@ -83,7 +100,35 @@ public class Patient {
     @Size(max = 255)
     private String address;
 
-// 7. Getters and Setters:
+// 7. 'searchName' field:
+//    - Type: private String
+//    - Description:
+//      - Normalized copy of the patient's name (lower case, accents removed, single spaces) used for name searches.
+//      - It is kept in sync with 'name' by the @PrePersist/@PreUpdate callback, so queries can match on it without applying LOWER() to every row.
+//      - The @JsonIgnore annotation keeps it out of API responses.
+
+    @JsonIgnore
+    @Column(name = "search_name", length = 100)
+    private String searchName;
+
+// 8. 'normalizeSearchKey' method:
+//    - Normalizes a name or a search term the same way 'searchName' is stored, so both sides of a LIKE match agree.
+
+    public static String normalizeSearchKey(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void refreshSearchName() {
+        this.searchName = normalizeSearchKey(name);
+    }
+
+// 9. Getters and Setters:
 //    - Standard getter and setter methods are provided for all fields: id, name, email, password, phone, and address.
 //    - These methods allow access and modification of the fields of the Patient class.
 
@@ -135,4 +180,8 @@ public class Patient {
     public void setAddress(String address) {
         this.address = address;
     }
+
+    public String getSearchName() {
+        return searchName;
+    }
 }
@@ -3,13 +3,23 @@ package com.project.back_end.models;
 import jakarta.persistence.Id;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDateTime;
+
 // @Document annotation:
 //    - Marks the class as a MongoDB document (a collection in MongoDB).
 //    - The collection name is specified as "prescriptions" to map this class to the "prescriptions" collection in MongoDB.
 
+// @CompoundIndex annotations:
+//    - {patientId, issuedAt desc} serves a patient's prescription history, newest first.
+//    - {doctorId, medication} serves the per-doctor medication usage aggregation.
+
 @Document(collection = "prescriptions")
+@CompoundIndex(name = "patient_issued_idx", def = "{'patientId': 1, 'issuedAt': -1}")
+@CompoundIndex(name = "doctor_medication_idx", def = "{'doctorId': 1, 'medication': 1}")
 public class Prescription {
 
 // 1. 'id' field:
@@ -37,7 +47,9 @@ public class Prescription {
 //    - Description:
 //      - Represents the ID of the associated appointment where the prescription was given.
 //      - The @NotNull annotation ensures that the appointment ID is required for the prescription.
+//      - The @Indexed(unique = true) annotation creates a unique index, so the database itself rejects a second prescription for the same appointment.
     @NotNull
+    @Indexed(unique = true)
     private Long appointmentId;
 
 // 4. 'medication' field:
@@ -69,8 +81,20 @@ public class Prescription {
     @Size(max = 200)
     private String doctorNotes;
 
+// 7. 'patientId', 'doctorId' and 'issuedAt' fields:
+//    - Types: private Long, private Long, private LocalDateTime
+//    - Description:
+//      - Copied from the appointment (and the save time) by PrescriptionService when the prescription is stored; values sent by clients are overwritten.
+//      - They let prescriptions be queried per patient or per doctor in MongoDB alone, without collecting appointment IDs from MySQL first.
+
+    private Long patientId;
+
+    private Long doctorId;
 
-// 7. Constructors:
+    private LocalDateTime issuedAt;
+
+
+// 8. Constructors:
 //    - The class includes a no-argument constructor (default constructor) and a parameterized constructor that initializes the fields: patientName, medication, dosage, doctorNotes, and appointmentId.
 
     public Prescription(String id, String patientName, Long appointmentId, String medication, String dosage, String doctorNotes) {
@@ -83,7 +107,7 @@ public class Prescription {
     }
 
 
-// 8. Getters and Setters:
+// 9. Getters and Setters:
 //    - Standard getter and setter methods are provided for all fields: id, patientName, medication, dosage, doctorNotes, and appointmentId.
 //    - These methods allow access and modification of the fields of the Prescription class.
 
@@ -134,4 +158,28 @@ public class Prescription {
     public void setDoctorNotes(String doctorNotes) {
         this.doctorNotes = doctorNotes;
     }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(Long patientId) {
+        this.patientId = patientId;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public LocalDateTime getIssuedAt() {
+        return issuedAt;
+    }
+
+    public void setIssuedAt(LocalDateTime issuedAt) {
+        this.issuedAt = issuedAt;
+    }
 }
@@ -1,11 +1,10 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Admin;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface AdminRepository extends JpaRepository<Admin, Long> {
+public interface AdminRepository extends NaturalIdRepository<Admin, Long> {
 
     // 1. Extend JpaRepository:
 //    - The repository extends JpaRepository<Admin, Long>, which gives it basic CRUD functionality.
@@ -13,6 +12,7 @@ public interface AdminRepository extends JpaRepository<Admin, Long> {
 //    - JpaRepository also includes pagination and sorting features.
 
 // Example: public interface AdminRepository extends JpaRepository<Admin, Long> {}
+//    - It extends NaturalIdRepository, a JpaRepository with cached lookups by natural id.
 
 // 2. Custom Query Method:
 //    - **findByUsername**:
@@ -21,6 +21,7 @@ public interface AdminRepository extends JpaRepository<Admin, Long> {
 //      - Parameter: String username
 //      - It will return an Admin entity that matches the provided username.
 //      - If no Admin is found with the given username, it returns null.
+//      - Username is the admin's natural id, so repeated lookups are served from the second-level cache.
 
     /**
      * Custom Query Method
@@ -30,7 +31,9 @@ public interface AdminRepository extends JpaRepository<Admin, Long> {
      * @return the matching Admin entity, or null if not found
      */
 
-    Admin findByUsername(String username);
+    default Admin findByUsername(String username) {
+        return findBySimpleNaturalId(username).orElse(null);
+    }
 
 // Example: public Admin findByUsername(String username);
 
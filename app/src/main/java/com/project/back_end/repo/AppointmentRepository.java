@@ -1,16 +1,26 @@
 package com.project.back_end.repo;
 
+import com.project.back_end.DTO.AppointmentDTO;
 import com.project.back_end.models.Admin;
 import com.project.back_end.models.Appointment;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
@@ -32,13 +42,14 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("end") LocalDateTime end
     );
 
-    // 2. Filter by doctor ID, patient name (partial, case-insensitive), and time range (include patient and doctor)
+    // 2. Filter by doctor ID, patient name (partial, on the normalized search name), and time range (include patient and doctor)
+    //    patientName must already be normalized with Patient.normalizeSearchKey
     @Query("SELECT a FROM Appointment a " +
-            "LEFT JOIN FETCH a.patient p " +
-            "LEFT JOIN FETCH a.doctor d " +
-            "WHERE d.id = :doctorId AND " +
-            "LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%')) AND " +
-            "a.appointmentTime BETWEEN :start AND :end")
+            "JOIN FETCH a.patient p " +
+            "JOIN FETCH a.doctor d " +
+            "WHERE a.doctor.id = :doctorId AND " +
+            "a.appointmentTime BETWEEN :start AND :end AND " +
+            "p.searchName LIKE CONCAT('%', :patientName, '%')")
     List<Appointment> findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
             @Param("doctorId") Long doctorId,
             @Param("patientName") String patientName,
@@ -51,13 +62,16 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Transactional
     void deleteAllByDoctorId(Long doctorId);
 
-    // 4. Retrieve all appointments for a specific patient
+    // 4. Retrieve all appointments for a specific patient (include patient and doctor)
+    @EntityGraph("Appointment.doctorAndPatient")
     List<Appointment> findByPatientId(Long patientId);
 
-    // 5. Retrieve appointments for a patient by status, ordered by appointment time
+    // 5. Retrieve appointments for a patient by status, ordered by appointment time (include patient and doctor)
+    @EntityGraph("Appointment.doctorAndPatient")
     List<Appointment> findByPatient_IdAndStatusOrderByAppointmentTimeAsc(Long patientId, int status);
 
-    // 6. Filter by partial doctor name (case-insensitive) and patient ID
+    // 6. Filter by partial doctor name (case-insensitive) and patient ID (include patient and doctor)
+    @EntityGraph("Appointment.doctorAndPatient")
     @Query("SELECT a FROM Appointment a " +
             "JOIN a.doctor d " +
             "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) " +
@@ -67,7 +81,8 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("patientId") Long patientId
     );
 
-    // 7. Filter by partial doctor name, patient ID, and status
+    // 7. Filter by partial doctor name, patient ID, and status (include patient and doctor)
+    @EntityGraph("Appointment.doctorAndPatient")
     @Query("SELECT a FROM Appointment a " +
             "JOIN a.doctor d " +
             "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) " +
@@ -79,6 +94,91 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("status") int status
     );
 
+    // Fetch size Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the result set
+    String EXPORT_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    // 8. Stream a doctor's appointments in a time range straight into DTOs (export)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(" +
+            "a.id, d.id, d.name, p.id, p.name, p.email, p.phone, p.address, a.appointmentTime, a.status) " +
+            "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+            "WHERE d.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end " +
+            "ORDER BY a.appointmentTime")
+    Stream<AppointmentDTO> streamByDoctorIdAndAppointmentTimeBetween(
+            @Param("doctorId") Long doctorId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    // 9. Stream every appointment in a time range straight into DTOs (clinic-wide export)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.project.back_end.DTO.AppointmentDTO(" +
+            "a.id, d.id, d.name, p.id, p.name, p.email, p.phone, p.address, a.appointmentTime, a.status) " +
+            "FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+            "WHERE a.appointmentTime BETWEEN :start AND :end " +
+            "ORDER BY a.appointmentTime")
+    Stream<AppointmentDTO> streamByAppointmentTimeBetween(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    // 10. Mark a bounded chunk of elapsed scheduled appointments (status 0) as completed (status 1)
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE appointment SET status = 1 " +
+            "WHERE status = 0 AND appointment_time < :now " +
+            "ORDER BY appointment_time LIMIT :limit", nativeQuery = true)
+    int completeElapsedAppointments(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // 11. Keyset page of a patient's appointments ordered by (appointment time, id), optionally filtered by status and doctor name
+    @Query("SELECT a FROM Appointment a " +
+            "JOIN FETCH a.doctor d " +
+            "JOIN FETCH a.patient p " +
+            "WHERE a.patient.id = :patientId " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:doctorName IS NULL OR LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%'))) " +
+            "AND (:afterTime IS NULL OR a.appointmentTime > :afterTime " +
+            "OR (a.appointmentTime = :afterTime AND a.id > :afterId)) " +
+            "ORDER BY a.appointmentTime, a.id")
+    List<Appointment> findPatientAppointmentPage(
+            @Param("patientId") Long patientId,
+            @Param("status") Integer status,
+            @Param("doctorName") String doctorName,
+            @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Long afterId,
+            Limit limit
+    );
+
+    // 12. Upcoming (scheduled) appointments of the patient with the given email, soonest first
+    @Query("SELECT a FROM Appointment a " +
+            "JOIN FETCH a.doctor d " +
+            "JOIN FETCH a.patient p " +
+            "WHERE p.email = :email AND a.status = 0 " +
+            "ORDER BY a.appointmentTime, a.id")
+    List<Appointment> findUpcomingByPatientEmail(@Param("email") String email, Limit limit);
+
+    // 13. IDs of the most recent appointments of the patient with the given email
+    @Query("SELECT a.id FROM Appointment a " +
+            "WHERE a.patient.email = :email " +
+            "ORDER BY a.appointmentTime DESC, a.id DESC")
+    List<Long> findRecentIdsByPatientEmail(@Param("email") String email, Limit limit);
+
+    // 14. Load an appointment with its patient only (cancellation checks the patient's email)
+    @EntityGraph("Appointment.patient")
+    Optional<Appointment> findWithPatientById(Long id);
+
+    // 15. IDs of a bounded chunk of completed appointments older than the cutoff, oldest first, locked until the archive chunk commits
+    @Query(value = "SELECT id FROM appointment " +
+            "WHERE status = 1 AND appointment_time < :cutoff " +
+            "ORDER BY appointment_time LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
 // 2. Custom Query Methods:
 
 //    - **findByDoctorIdAndAppointmentTimeBetween**:
@@ -90,7 +190,9 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
 //    - **findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween**:
 //      - This method retrieves appointments for a specific doctor and patient name (ignoring case) within a given time range.
-//      - It performs a LEFT JOIN to fetch both the doctor and patient details along with the appointment times.
+//      - The (doctor_id, appointment_time) index narrows the rows first; the name is then matched on the patient's normalized searchName column.
+//      - The caller passes the search term through Patient.normalizeSearchKey so it matches the stored form.
+//      - It performs a JOIN to fetch both the doctor and patient details along with the appointment times.
 //      - Return type: List<Appointment>
 //      - Parameters: Long doctorId, String patientName, LocalDateTime start, LocalDateTime end
 
@@ -120,6 +222,43 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 //      - Return type: List<Appointment>
 //      - Parameters: String doctorName, Long patientId, int status
 
+//    - **streamByDoctorIdAndAppointmentTimeBetween** / **streamByAppointmentTimeBetween**:
+//      - These methods stream appointments in a time range (for one doctor or the whole clinic) as AppointmentDTOs.
+//      - The constructor expression keeps entities out of the persistence context and the streaming fetch size keeps the driver from buffering rows.
+//      - The returned Stream must be consumed and closed inside a read-only transaction.
+//      - Return type: Stream<AppointmentDTO>
+//      - Parameters: (Long doctorId,) LocalDateTime start, LocalDateTime end
+
+//    - **completeElapsedAppointments**:
+//      - This method marks at most `limit` scheduled appointments whose time has passed as completed, in a single set-based UPDATE.
+//      - It walks the (status, appointment_time) index, so each call touches only the rows it changes.
+//      - Return type: int (number of updated rows)
+//      - Parameters: LocalDateTime now, int limit
+
+//    - **findPatientAppointmentPage**:
+//      - This method retrieves one page of a patient's appointments ordered by (appointment time, id), starting after the given cursor.
+//      - Status and doctor name filters are optional (pass null to skip them); a null afterTime returns the first page.
+//      - It seeks directly to the cursor on the (patient_id, appointment_time) index, so every page costs the same however long the history is.
+//      - Return type: List<Appointment>
+//      - Parameters: Long patientId, Integer status, String doctorName, LocalDateTime afterTime, Long afterId, Limit limit
+
+//    - **findUpcomingByPatientEmail** / **findRecentIdsByPatientEmail**:
+//      - These methods look appointments up by the patient's email (the token identifier), so they can run without first resolving the patient ID.
+//      - The first returns scheduled appointments soonest first; the second returns only the IDs of the latest appointments, newest first.
+//      - Return type: List<Appointment> / List<Long>
+//      - Parameters: String email, Limit limit
+
+//    - **findWithPatientById**:
+//      - This method loads an appointment and its patient in one query through the "Appointment.patient" entity graph; the doctor stays an unloaded reference.
+//      - Return type: Optional<Appointment>
+//      - Parameters: Long id
+
+//    - **findArchivableIds**:
+//      - This method returns the IDs of at most `limit` completed appointments older than the cutoff, walking the (status, appointment_time) index.
+//      - The rows stay locked until the archive job's chunk transaction copies them to archived_appointment and deletes them.
+//      - Return type: List<Long>
+//      - Parameters: LocalDateTime cutoff, int limit
+
 //    - **updateStatus**:
 //      - This method updates the status of a specific appointment based on its ID.
 //      - Return type: void
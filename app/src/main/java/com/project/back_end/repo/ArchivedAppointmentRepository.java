@@ -0,0 +1,73 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.ArchivedAppointment;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+    // 1. Copy appointments into the archive, keeping their ids (the caller deletes them from appointment in the same transaction)
+    @Modifying
+    @Query(value = "INSERT INTO archived_appointment (id, doctor_id, patient_id, appointment_time, status, archived_at) " +
+            "SELECT id, doctor_id, patient_id, appointment_time, status, :archivedAt " +
+            "FROM appointment WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromAppointments(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // 2. Keyset page of a patient's archived appointments; same filters and order as AppointmentRepository.findPatientAppointmentPage
+    @Query("SELECT a FROM ArchivedAppointment a " +
+            "JOIN FETCH a.doctor d " +
+            "JOIN FETCH a.patient p " +
+            "WHERE a.patient.id = :patientId " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:doctorName IS NULL OR LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%'))) " +
+            "AND (:afterTime IS NULL OR a.appointmentTime > :afterTime " +
+            "OR (a.appointmentTime = :afterTime AND a.id > :afterId)) " +
+            "ORDER BY a.appointmentTime, a.id")
+    List<ArchivedAppointment> findPatientAppointmentPage(
+            @Param("patientId") Long patientId,
+            @Param("status") Integer status,
+            @Param("doctorName") String doctorName,
+            @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Long afterId,
+            Limit limit
+    );
+
+    // 3. Delete all archived appointments of a doctor (the doctor is being removed)
+    @Modifying
+    @Transactional
+    void deleteAllByDoctorId(Long doctorId);
+
+// 1. Extend JpaRepository:
+//    - The repository extends JpaRepository<ArchivedAppointment, Long>; archived appointments are read-only, so only finders and deletes are used.
+
+// 2. Custom Query Methods:
+
+//    - **copyFromAppointments**:
+//      - This method copies the given appointments into archived_appointment with a single INSERT ... SELECT, without loading entities.
+//      - Return type: int (number of copied rows)
+//      - Parameters: List<Long> ids, LocalDateTime archivedAt
+
+//    - **findPatientAppointmentPage**:
+//      - This method retrieves one keyset page of a patient's archived appointments, on the (patient_id, appointment_time) index.
+//      - PatientService merges it with the page from the appointment table, so the history reads both transparently.
+//      - Return type: List<ArchivedAppointment>
+//      - Parameters: Long patientId, Integer status, String doctorName, LocalDateTime afterTime, Long afterId, Limit limit
+
+//    - **deleteAllByDoctorId**:
+//      - This method deletes a doctor's archived appointments, before the doctor is deleted.
+//      - Return type: void
+//      - Parameters: Long doctorId
+
+// 3. @Repository annotation:
+//    - The @Repository annotation marks this interface as a Spring Data JPA repository.
+
+}
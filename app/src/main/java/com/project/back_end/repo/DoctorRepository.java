@@ -1,21 +1,25 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Doctor;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+public interface DoctorRepository extends NaturalIdRepository<Doctor, Long> {
    // 1. Extend JpaRepository:
 //    - The repository extends JpaRepository<Doctor, Long>, which gives it basic CRUD functionality.
 //    - This allows the repository to perform operations like save, delete, update, and find without needing to implement these methods manually.
 //    - JpaRepository also includes features like pagination and sorting.
 
 // Example: public interface DoctorRepository extends JpaRepository<Doctor, Long> {}
+//    - It extends NaturalIdRepository, a JpaRepository with cached lookups by natural id.
 
     /**
      * Find a doctor by their email address.
@@ -23,7 +27,20 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
      * @param email the email of the doctor
      * @return Doctor entity if found, otherwise null
      */
-    Doctor findByEmail(String email);
+    default Doctor findByEmail(String email) {
+        return findBySimpleNaturalId(email).orElse(null);
+    }
+
+    /**
+     * Find all doctors together with their available times.
+     * The result is kept in the query cache until a doctor is added, changed or removed.
+     *
+     * @return list of all doctors
+     */
+    @Override
+    @EntityGraph("Doctor.availableTimes")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Doctor> findAll();
 
     /**
      * Find doctors by partial name match (case-sensitive).
@@ -32,6 +49,7 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
      * @param name part of the doctor's name
      * @return list of matching doctors
      */
+    @EntityGraph("Doctor.availableTimes")
     @Query("SELECT d FROM Doctor d WHERE d.name LIKE CONCAT('%', :name, '%')")
     List<Doctor> findByNameLike(@Param("name") String name);
 
@@ -42,6 +60,7 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
      * @param specialty exact specialty (case-insensitive)
      * @return list of matching doctors
      */
+    @EntityGraph("Doctor.availableTimes")
     @Query("SELECT d FROM Doctor d " +
             "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')) " +
             "AND LOWER(d.specialty) = LOWER(:specialty)")
@@ -56,12 +75,14 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
      * @param specialty the specialty to search for
      * @return list of doctors with matching specialty
      */
+    @EntityGraph("Doctor.availableTimes")
     List<Doctor> findBySpecialtyIgnoreCase(String specialty);
 
 // 2. Custom Query Methods:
 
 //    - **findByEmail**:
 //      - This method retrieves a Doctor by their email.
+//      - Email is the doctor's natural id, so repeated lookups (one per token validation) are served from the second-level cache.
 //      - Return type: Doctor
 //      - Parameters: String email
 
@@ -82,6 +103,10 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 //      - Return type: List<Doctor>
 //      - Parameters: String specialty
 
+//    - **findAll** and the name/specialty queries:
+//      - These methods load each doctor's available times in the same query through the "Doctor.availableTimes" entity graph,
+//        because their results are serialized after the transaction has ended.
+
 // 3. @Repository annotation:
 //    - The @Repository annotation marks this interface as a Spring Data JPA repository.
 //    - Spring Data JPA automatically implements this repository, providing the necessary CRUD functionality and custom queries defined in the interface.
@@ -0,0 +1,26 @@
+package com.project.back_end.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Optional;
+
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+
+    /**
+     * Find an entity by its @NaturalId. Hits in the natural-id and entity caches are answered without a query.
+     *
+     * @param naturalId the natural id value (e.g. an email address)
+     * @return the matching entity, or empty if there is none
+     */
+    Optional<T> findBySimpleNaturalId(Object naturalId);
+
+// 1. @NoRepositoryBean annotation:
+//    - Marks this interface as a base for other repositories; Spring Data does not create a bean for it.
+
+// 2. **findBySimpleNaturalId**:
+//    - Implemented by NaturalIdRepositoryImpl, the base class of every JPA repository (see RepositoryConfig).
+//    - Repositories expose it under a domain name, e.g. PatientRepository.findByEmail.
+
+}
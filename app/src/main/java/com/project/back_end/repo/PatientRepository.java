@@ -2,11 +2,12 @@ package com.project.back_end.repo;
 
 import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, Long> {
+public interface PatientRepository extends NaturalIdRepository<Patient, Long> {
 
     // 1. Extend JpaRepository:
 //    - The repository extends JpaRepository<Patient, Long>, which provides basic CRUD functionality.
@@ -14,6 +15,7 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
 //    - JpaRepository also includes features like pagination and sorting.
 
 // Example: public interface PatientRepository extends JpaRepository<Patient, Long> {}
+//    - It extends NaturalIdRepository, a JpaRepository with cached lookups by natural id.
 
     /**
      * Find a patient by their email address.
@@ -21,7 +23,9 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
      * @param email the patient's email
      * @return the matching Patient entity or null if not found
      */
-    Patient findByEmail(String email);
+    default Patient findByEmail(String email) {
+        return findBySimpleNaturalId(email).orElse(null);
+    }
 
     /**
      * Find a patient using either email or phone number.
@@ -32,11 +36,19 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
      */
     Patient findByEmailOrPhone(String email, String phone);
 
+    /**
+     * Find a chunk of patients whose normalized search name has not been filled in yet.
+     *
+     * @return up to 500 patients without a search name
+     */
+    List<Patient> findTop500BySearchNameIsNull();
+
 
 // 2. Custom Query Methods:
 
 //    - **findByEmail**:
 //      - This method retrieves a Patient by their email address.
+//      - Email is the patient's natural id, so repeated lookups (one per token validation) are served from the second-level cache.
 //      - Return type: Patient
 //      - Parameters: String email
 
@@ -45,6 +57,10 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
 //      - Return type: Patient
 //      - Parameters: String email, String phone
 
+//    - **findTop500BySearchNameIsNull**:
+//      - This method retrieves up to 500 patients whose normalized search name is still missing (rows created before the column existed).
+//      - Return type: List<Patient>
+
 // 3. @Repository annotation:
 //    - The @Repository annotation marks this interface as a Spring Data JPA repository.
 //    - Spring Data JPA automatically implements this repository, providing the necessary CRUD functionality and custom queries defined in the interface.
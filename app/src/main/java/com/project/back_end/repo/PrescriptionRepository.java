@@ -1,9 +1,13 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Prescription;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -32,5 +36,23 @@ public interface PrescriptionRepository extends MongoRepository<Prescription, St
      */
     Prescription findByAppointmentId(Long appointmentId);
 
+    /**
+     * Retrieve the prescriptions of several appointments with a single query.
+     *
+     * @param appointmentIds the IDs of the appointments
+     * @return prescriptions found for any of the given appointments
+     */
+    List<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds);
+
+    /**
+     * Retrieve the next page, in ID order, of prescriptions stored before their owners and issue time were recorded.
+     *
+     * @param afterId the ID of the last prescription of the previous page
+     * @param limit the page size
+     * @return prescriptions after the given ID that have no patient ID or no issue time
+     */
+    @Query(value = "{ '_id': { '$gt': ?0 }, '$or': [ { 'patientId': null }, { 'issuedAt': null } ] }", sort = "{ '_id': 1 }")
+    List<Prescription> findIncompleteAfter(ObjectId afterId, Limit limit);
+
 }
 
@@ -0,0 +1,35 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Prescription;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Repository
+public interface ReactivePrescriptionRepository extends ReactiveMongoRepository<Prescription, String> {
+
+// 1. Extend ReactiveMongoRepository:
+//    - Same collection as `PrescriptionRepository`, but every call goes through the reactive MongoDB driver and returns a `Mono` or `Flux`.
+//    - Used by the prescription endpoints, so a slow MongoDB never holds a servlet thread while waiting for a reply.
+//    - `PrescriptionRepository` stays for the background jobs and other blocking callers.
+
+    /**
+     * Retrieve the prescription associated with a specific appointment ID.
+     *
+     * @param appointmentId the ID of the appointment
+     * @return the prescription, or an empty Mono if there is none
+     */
+    Mono<Prescription> findByAppointmentId(Long appointmentId);
+
+    /**
+     * Retrieve the prescriptions of several appointments with a single query.
+     *
+     * @param appointmentIds the IDs of the appointments
+     * @return prescriptions found for any of the given appointments
+     */
+    Flux<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds);
+
+}
@@ -0,0 +1,154 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.AppointmentShards;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "appointments.archive-job.enabled", havingValue = "true", matchIfMissing = true)
+public class AppointmentArchiveJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentArchiveJob.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final AppointmentShards shards;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration age;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final Duration chunkPause;
+    private final Duration interval;
+    private final Duration maxBackoff;
+
+    private final Counter archivedCounter;
+    private final Counter failureCounter;
+    private final Timer chunkTimer;
+
+    private int consecutiveFailures;
+    private Instant nextAttempt = Instant.MIN;
+
+    public AppointmentArchiveJob(AppointmentRepository appointmentRepository,
+                                 ArchivedAppointmentRepository archivedAppointmentRepository,
+                                 AppointmentShards shards,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${appointments.archive-job.age:P180D}") Duration age,
+                                 @Value("${appointments.archive-job.chunk-size:500}") int chunkSize,
+                                 @Value("${appointments.archive-job.max-chunks-per-run:100}") int maxChunksPerRun,
+                                 @Value("${appointments.archive-job.chunk-pause:PT0.1S}") Duration chunkPause,
+                                 @Value("${appointments.archive-job.interval:PT1H}") Duration interval,
+                                 @Value("${appointments.archive-job.max-backoff:PT6H}") Duration maxBackoff) {
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.shards = shards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.age = age;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.chunkPause = chunkPause;
+        this.interval = interval;
+        this.maxBackoff = maxBackoff;
+
+        this.archivedCounter = Counter.builder("appointments.archive.job.archived")
+                .description("Appointments moved to the archive table")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("appointments.archive.job.failures")
+                .description("Archive job runs aborted by an error")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("appointments.archive.job.chunk")
+                .description("Time spent archiving one chunk of appointments")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${appointments.archive-job.interval:PT1H}",
+            initialDelayString = "${appointments.archive-job.interval:PT1H}")
+    public void archiveOldAppointments() {
+        Instant now = Instant.now();
+        if (now.isBefore(nextAttempt)) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(age);
+        int total = 0;
+        try {
+            for (int shard = 0; shard < shards.count(); shard++) {
+                total += archiveOldAppointments(shard, cutoff);
+            }
+            consecutiveFailures = 0;
+            if (total > 0) {
+                logger.info("Archived {} appointments older than {}", total, cutoff);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            failureCounter.increment();
+            consecutiveFailures++;
+            Duration backoff = interval.multipliedBy(1L << Math.min(consecutiveFailures, 10));
+            if (backoff.compareTo(maxBackoff) > 0) {
+                backoff = maxBackoff;
+            }
+            nextAttempt = now.plus(backoff);
+            logger.warn("Appointment archive job failed after {} appointments, retrying in {}: {}",
+                    total, backoff, e.getMessage());
+        }
+    }
+
+    private int archiveOldAppointments(int shard, LocalDateTime cutoff) throws Exception {
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer archived = chunkTimer.recordCallable(() -> shards.onShard(shard,
+                    () -> transactionTemplate.execute(status -> archiveChunk(cutoff))));
+            total += archived;
+            archivedCounter.increment(archived);
+            if (archived < chunkSize) {
+                break;
+            }
+            Thread.sleep(chunkPause.toMillis());
+        }
+        return total;
+    }
+
+    // Copy and delete one chunk in a single transaction, so an appointment is always in exactly one of the two tables
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Long> ids = appointmentRepository.findArchivableIds(cutoff, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedAppointmentRepository.copyFromAppointments(ids, LocalDateTime.now());
+        appointmentRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+// 1. **Purpose**:
+//    - Booking, availability and day-view queries only ever look at current appointments, but every appointment ever booked used to stay in `appointment`.
+//    - This job moves completed appointments older than `age` into `archived_appointment`, keeping the hot table and its indexes small enough to stay in memory.
+//    - Patient history reads both tables (see PatientService), so archived appointments still show up there.
+
+// 2. **Chunking**:
+//    - Each chunk locks at most `chunk-size` archivable rows, copies them with one INSERT ... SELECT and deletes them, all in one short transaction.
+//    - A run stops when a chunk comes back partly filled or after `max-chunks-per-run` chunks, pausing `chunk-pause` between chunks.
+//    - With sharding, each shard is walked in turn with its own chunk limit; an appointment is archived on the shard that holds it, keeping its ID.
+
+// 3. **Back-off**:
+//    - When a run fails, following runs are skipped for an exponentially growing delay (capped at `max-backoff`), and the delay resets after the next successful run.
+
+// 4. **Metrics**:
+//    - appointments.archive.job.archived, appointments.archive.job.failures and the appointments.archive.job.chunk timer are registered with Micrometer.
+}
@@ -1,21 +1,29 @@
 package com.project.back_end.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.config.AppointmentShards;
 import com.project.back_end.models.Appointment;
-import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 
 @Service
@@ -60,6 +68,16 @@ public class AppointmentService {
 //    - It should be annotated with `@Transactional` to ensure the operation is executed in a single transaction.
 //    - Instruction: Add `@Transactional` before this method to ensure atomicity when updating appointment status.
 
+// 9. **Export Appointments Method**:
+//    - Streams every appointment in a date range (one doctor's, or the whole clinic's for admins) to an output stream as NDJSON.
+//    - Rows are read through a streaming cursor and written one by one, so memory stays flat however many appointments the range holds.
+//    - It runs in a read-only transaction, which must stay open until the stream has been fully written.
+//    - With sharding, a doctor's export reads one shard; the clinic-wide export reads the shards one after the other, so its rows are ordered by time within each shard.
+
+// 10. **Sharding**:
+//    - Booking, the conflict check of an update and the doctor's day view run on the doctor's shard (see AppointmentShards); updates and cancellations find the appointment on the shard its ID names.
+//    - An appointment cannot be moved to a doctor on another shard, as its ID would have to change; it is cancelled and booked again instead.
+
 
     private static final Logger logger = LoggerFactory.getLogger(AppointmentService.class);
 
@@ -67,15 +85,24 @@ public class AppointmentService {
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final TokenService tokenService;
+    private final ObjectMapper objectMapper;
+    private final AppointmentShards shards;
+
+    // Number of exported rows between two flushes of the response
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
 
     public AppointmentService(AppointmentRepository appointmentRepository,
                               PatientRepository patientRepository,
                               DoctorRepository doctorRepository,
-                              TokenService tokenService) {
+                              TokenService tokenService,
+                              ObjectMapper objectMapper,
+                              AppointmentShards shards) {
         this.appointmentRepository = appointmentRepository;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.tokenService = tokenService;
+        this.objectMapper = objectMapper;
+        this.shards = shards;
     }
 
     @Transactional
@@ -83,7 +110,7 @@ public class AppointmentService {
         logger.info("Booking appointment for patient ID: {}, doctor ID: {}",
                 appointment.getPatient().getId(), appointment.getDoctor().getId());
         try {
-            appointmentRepository.save(appointment);
+            shards.onDoctorShard(appointment.getDoctor().getId(), () -> appointmentRepository.save(appointment));
             logger.info("Appointment booked successfully at {}", appointment.getAppointmentTime());
             return 1;
         } catch (Exception e) {
@@ -95,6 +122,10 @@ public class AppointmentService {
     @Transactional
     public ResponseEntity<Map<String, String>> updateAppointment(Appointment appointment) {
         logger.info("Updating appointment ID: {}", appointment.getId());
+        return shards.onAppointmentShard(appointment.getId(), () -> updateOnShard(appointment));
+    }
+
+    private ResponseEntity<Map<String, String>> updateOnShard(Appointment appointment) {
         Map<String, String> response = new HashMap<>();
 
         Optional<Appointment> optional = appointmentRepository.findById(appointment.getId());
@@ -113,13 +144,20 @@ public class AppointmentService {
             return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
         }
 
-        Optional<Doctor> doctorOpt = doctorRepository.findById(appointment.getDoctor().getId());
-        if (doctorOpt.isEmpty()) {
+        // Only the doctor's existence matters here, so it is checked without loading the row
+        if (!doctorRepository.existsById(appointment.getDoctor().getId())) {
             logger.warn("Doctor ID {} not found.", appointment.getDoctor().getId());
             response.put("message", "Doctor not found.");
             return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
         }
 
+        if (shards.shardOfDoctor(appointment.getDoctor().getId()) != shards.shardOfAppointment(appointment.getId())) {
+            logger.warn("Appointment ID {} cannot move to doctor ID {} on another shard.",
+                    appointment.getId(), appointment.getDoctor().getId());
+            response.put("message", "This appointment cannot be moved to that doctor; cancel it and book a new one.");
+            return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+        }
+
         LocalDateTime start = appointment.getAppointmentTime();
         LocalDateTime end = start.plusMinutes(59);
 
@@ -135,7 +173,7 @@ public class AppointmentService {
             return new ResponseEntity<>(response, HttpStatus.CONFLICT);
         }
 
-        existing.setDoctor(appointment.getDoctor());
+        existing.setDoctor(doctorRepository.getReferenceById(appointment.getDoctor().getId()));
         existing.setAppointmentTime(appointment.getAppointmentTime());
         existing.setStatus(appointment.getStatus());
 
@@ -148,9 +186,13 @@ public class AppointmentService {
     @Transactional
     public ResponseEntity<Map<String, String>> cancelAppointment(long id, String token) {
         logger.info("Attempting to cancel appointment ID: {}", id);
+        return shards.onAppointmentShard(id, () -> cancelOnShard(id, token));
+    }
+
+    private ResponseEntity<Map<String, String>> cancelOnShard(long id, String token) {
         Map<String, String> response = new HashMap<>();
 
-        Optional<Appointment> optional = appointmentRepository.findById(id);
+        Optional<Appointment> optional = appointmentRepository.findWithPatientById(id);
 
         if (optional.isEmpty()) {
             logger.warn("Appointment ID {} not found.", id);
@@ -185,15 +227,62 @@ public class AppointmentService {
         List<Appointment> appointments;
 
         if (pname == null || pname.equalsIgnoreCase("null") || pname.trim().isEmpty()) {
-            appointments = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId, start, end);
+            appointments = shards.onDoctorShard(doctorId,
+                    () -> appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId, start, end));
         } else {
-            appointments = appointmentRepository
+            appointments = shards.onDoctorShard(doctorId, () -> appointmentRepository
                     .findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
-                            doctorId, pname, start, end);
+                            doctorId, Patient.normalizeSearchKey(pname), start, end));
         }
 
         logger.info("Appointments fetched: {}", appointments.size());
         result.put("appointments", appointments);
         return result;
     }
+
+    @Transactional(readOnly = true)
+    public int exportAppointments(String user, String token, LocalDate from, LocalDate to,
+                                  OutputStream out) throws IOException {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.atTime(LocalTime.MAX);
+
+        int count = 0;
+        try (SequenceWriter writer = objectMapper.writerFor(AppointmentDTO.class)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            if ("doctor".equalsIgnoreCase(user)) {
+                Long doctorId = doctorRepository.findByEmail(tokenService.extractIdentifier(token)).getId();
+                logger.info("Exporting appointments for doctor ID: {} from {} to {}", doctorId, from, to);
+                count = shards.onDoctorShard(doctorId, () -> writeRows(
+                        appointmentRepository.streamByDoctorIdAndAppointmentTimeBetween(doctorId, start, end), writer, 0));
+            } else {
+                logger.info("Exporting all appointments from {} to {}", from, to);
+                for (int shard = 0; shard < shards.count(); shard++) {
+                    int written = count;
+                    count = shards.onShard(shard, () -> writeRows(
+                            appointmentRepository.streamByAppointmentTimeBetween(start, end), writer, written));
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        logger.info("Exported {} appointments", count);
+        return count;
+    }
+
+    // Writes the rows after `count` already written ones and returns the new total; the stream is closed when done
+    private static int writeRows(Stream<AppointmentDTO> rows, SequenceWriter writer, int count) {
+        try (rows) {
+            Iterator<AppointmentDTO> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++count == 1 || count % EXPORT_FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,129 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.AppointmentShards;
+import com.project.back_end.repo.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+@Component
+@ConditionalOnProperty(name = "appointments.status-job.enabled", havingValue = "true", matchIfMissing = true)
+public class AppointmentStatusJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentStatusJob.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentShards shards;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final Duration chunkPause;
+    private final Duration interval;
+    private final Duration maxBackoff;
+
+    private final Counter completedCounter;
+    private final Counter failureCounter;
+    private final Timer chunkTimer;
+
+    private int consecutiveFailures;
+    private Instant nextAttempt = Instant.MIN;
+
+    public AppointmentStatusJob(AppointmentRepository appointmentRepository,
+                                AppointmentShards shards,
+                                MeterRegistry meterRegistry,
+                                @Value("${appointments.status-job.chunk-size:500}") int chunkSize,
+                                @Value("${appointments.status-job.max-chunks-per-run:20}") int maxChunksPerRun,
+                                @Value("${appointments.status-job.chunk-pause:PT0.05S}") Duration chunkPause,
+                                @Value("${appointments.status-job.interval:PT1M}") Duration interval,
+                                @Value("${appointments.status-job.max-backoff:PT30M}") Duration maxBackoff) {
+        this.appointmentRepository = appointmentRepository;
+        this.shards = shards;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.chunkPause = chunkPause;
+        this.interval = interval;
+        this.maxBackoff = maxBackoff;
+
+        this.completedCounter = Counter.builder("appointments.status.job.completed")
+                .description("Appointments moved from scheduled to completed")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("appointments.status.job.failures")
+                .description("Status job runs aborted by an error")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("appointments.status.job.chunk")
+                .description("Time spent updating one chunk of elapsed appointments")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${appointments.status-job.interval:PT1M}",
+            initialDelayString = "${appointments.status-job.interval:PT1M}")
+    public void completeElapsedAppointments() {
+        Instant now = Instant.now();
+        if (now.isBefore(nextAttempt)) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now();
+        int total = 0;
+        try {
+            for (int shard = 0; shard < shards.count(); shard++) {
+                total += completeElapsedAppointments(shard, cutoff);
+            }
+            consecutiveFailures = 0;
+            if (total > 0) {
+                logger.info("Marked {} elapsed appointments as completed", total);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            failureCounter.increment();
+            consecutiveFailures++;
+            Duration backoff = interval.multipliedBy(1L << Math.min(consecutiveFailures, 10));
+            if (backoff.compareTo(maxBackoff) > 0) {
+                backoff = maxBackoff;
+            }
+            nextAttempt = now.plus(backoff);
+            logger.warn("Appointment status job failed after {} updates, retrying in {}: {}",
+                    total, backoff, e.getMessage());
+        }
+    }
+
+    private int completeElapsedAppointments(int shard, LocalDateTime cutoff) throws Exception {
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer updated = chunkTimer.recordCallable(() -> shards.onShard(shard,
+                    () -> appointmentRepository.completeElapsedAppointments(cutoff, chunkSize)));
+            total += updated;
+            completedCounter.increment(updated);
+            if (updated < chunkSize) {
+                break;
+            }
+            Thread.sleep(chunkPause.toMillis());
+        }
+        return total;
+    }
+
+// 1. **Purpose**:
+//    - Appointments are booked with status 0 (scheduled) and the "future"/"past" filters rely on status 1 (completed) once their time has passed.
+//    - This job periodically moves elapsed appointments from 0 to 1 with set-based UPDATE statements, without loading any entity.
+
+// 2. **Chunking**:
+//    - Each UPDATE changes at most `chunk-size` rows in its own short transaction, walking the (status, appointment_time) index.
+//    - A run stops when a chunk comes back partly filled or after `max-chunks-per-run` chunks, pausing `chunk-pause` between chunks.
+//    - With sharding, each shard is walked in turn with its own chunk limit.
+
+// 3. **Back-off**:
+//    - When a run fails, following runs are skipped for an exponentially growing delay (capped at `max-backoff`), and the delay resets after the next successful run.
+
+// 4. **Metrics**:
+//    - appointments.status.job.completed, appointments.status.job.failures and the appointments.status.job.chunk timer are registered with Micrometer.
+}
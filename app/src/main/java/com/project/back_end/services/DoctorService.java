@@ -1,10 +1,12 @@
 package com.project.back_end.services;
 
 import com.project.back_end.DTO.Login;
+import com.project.back_end.config.AppointmentShards;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
 //import com.project.back_end.models.TimeSlot;
 import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,32 +26,38 @@ public class DoctorService {
 
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
     private final TokenService tokenService;
+    private final AppointmentShards shards;
 
     public DoctorService(DoctorRepository doctorRepository,
                          AppointmentRepository appointmentRepository,
-                         TokenService tokenService) {
+                         ArchivedAppointmentRepository archivedAppointmentRepository,
+                         TokenService tokenService,
+                         AppointmentShards shards) {
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
         this.tokenService = tokenService;
+        this.shards = shards;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<String> getDoctorAvailability(Long doctorId, LocalDate date) {
         logger.info("Fetching availability for doctorId={} on date={}", doctorId, date);
         Optional<Doctor> doctorOpt = doctorRepository.findById(doctorId);
         if (doctorOpt.isEmpty()) return Collections.emptyList();
 
         Doctor doctor = doctorOpt.get();
-        List<Appointment> booked = appointmentRepository
-                .findByDoctorIdAndAppointmentTimeBetween(doctorId, date.atStartOfDay(), date.atTime(LocalTime.MAX));
+        List<Appointment> booked = shards.onDoctorShard(doctorId, () -> appointmentRepository
+                .findByDoctorIdAndAppointmentTimeBetween(doctorId, date.atStartOfDay(), date.atTime(LocalTime.MAX)));
 
         Set<String> bookedTimes = booked.stream()
                 .map(a -> a.getAppointmentTime().toLocalTime().toString())
                 .collect(Collectors.toSet());
 
         return doctor.getAvailableTimes().stream()
-                .filter(t -> !bookedTimes.contains(t))
+                .filter(t -> !bookedTimes.contains(slotStart(t)))
                 .sorted()
                 .collect(Collectors.toList());
     }
@@ -84,6 +92,7 @@ public class DoctorService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Doctor> getDoctors() {
         return doctorRepository.findAll();
     }
@@ -96,7 +105,12 @@ public class DoctorService {
             return -1;
         }
         try {
-            appointmentRepository.deleteAllByDoctorId(id);
+            // The appointments are removed first, in their own transaction on the doctor's shard
+            shards.onDoctorShard(id, () -> {
+                appointmentRepository.deleteAllByDoctorId(id);
+                archivedAppointmentRepository.deleteAllByDoctorId(id);
+                return null;
+            });
             doctorRepository.deleteById(id);
             return 1;
         } catch (Exception e) {
@@ -130,51 +144,57 @@ public class DoctorService {
         return ResponseEntity.ok(response);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> findDoctorByName(String name) {
         return doctorRepository.findByNameLike("%" + name + "%");
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorsByNameSpecilityandTime(String name, String specialty, String amOrPm) {
         List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
         return filterDoctorByTime(doctors, amOrPm);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorByNameAndTime(String name, String amOrPm) {
         List<Doctor> doctors = doctorRepository.findByNameLike("%" + name + "%");
         return filterDoctorByTime(doctors, amOrPm);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorByNameAndSpecility(String name, String specialty) {
         return doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorByTimeAndSpecility(String specialty, String amOrPm) {
         List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specialty);
         return filterDoctorByTime(doctors, amOrPm);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorBySpecility(String specialty) {
         return doctorRepository.findBySpecialtyIgnoreCase(specialty);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorsByTime(String amOrPm) {
         List<Doctor> doctors = doctorRepository.findAll();
         return filterDoctorByTime(doctors, amOrPm);
     }
 
+    // Slots are stored as "HH:mm-HH:mm"; appointments are matched on the start time
+    static String slotStart(String slot) {
+        int dash = slot.indexOf('-');
+        return (dash < 0 ? slot : slot.substring(0, dash)).trim();
+    }
+
     // Private filtering helper
     private List<Doctor> filterDoctorByTime(List<Doctor> doctors, String amOrPm) {
         return doctors.stream()
                 .filter(doctor -> doctor.getAvailableTimes().stream()
                         .anyMatch(slot -> {
-                            LocalTime time = LocalTime.parse(slot);
+                            LocalTime time = LocalTime.parse(slotStart(slot));
                             return "AM".equalsIgnoreCase(amOrPm) ? time.isBefore(LocalTime.NOON)
                                     : !time.isBefore(LocalTime.NOON);
                         }))
@@ -195,10 +215,12 @@ public class DoctorService {
 //    - Methods like `getDoctorAvailability`, `getDoctors`, `findDoctorByName`, `filterDoctorsBy*` should be annotated with `@Transactional`.
 //    - The `@Transactional` annotation ensures that database operations are consistent and wrapped in a single transaction.
 //    - Instruction: Add the `@Transactional` annotation above the methods that perform database operations or queries.
+//    - The lookups and filters are `readOnly`, so they are served by the read replica when replica routing is enabled.
 
 // 4. **getDoctorAvailability Method**:
 //    - Retrieves the available time slots for a specific doctor on a particular date and filters out already booked slots.
 //    - The method fetches all appointments for the doctor on the given date and calculates the availability by comparing against booked slots.
+//    - The appointments are read from the doctor's shard only (see AppointmentShards).
 //    - Instruction: Ensure that the time slots are properly formatted and the available slots are correctly filtered.
 
 // 5. **saveDoctor Method**:
@@ -216,7 +238,7 @@ public class DoctorService {
 
 // 8. **deleteDoctor Method**:
 //    - Deletes a doctor from the system along with all appointments associated with that doctor.
-//    - It first checks if the doctor exists. If not, it returns `-1`; otherwise, it deletes the doctor and their appointments.
+//    - It first checks if the doctor exists. If not, it returns `-1`; otherwise, it deletes the doctor and their appointments, including archived ones.
 //    - Instruction: Ensure the doctor and their appointments are deleted properly, with error handling for internal issues.
 
 // 9. **validateDoctor Method**:
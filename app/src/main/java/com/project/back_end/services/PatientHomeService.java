@@ -0,0 +1,174 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentCursor;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.config.AppointmentShards;
+import com.project.back_end.mapper.AppointmentMapper;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+@Service
+public class PatientHomeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientHomeService.class);
+
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final TokenService tokenService;
+    private final AppointmentShards shards;
+    private final Executor mysqlExecutor;
+    private final Executor mongoExecutor;
+    private final int upcomingLimit;
+    private final int prescriptionLimit;
+    private final Duration timeout;
+
+    public PatientHomeService(PatientRepository patientRepository,
+                              AppointmentRepository appointmentRepository,
+                              PrescriptionRepository prescriptionRepository,
+                              TokenService tokenService,
+                              AppointmentShards shards,
+                              @Qualifier("mysqlExecutor") Executor mysqlExecutor,
+                              @Qualifier("mongoExecutor") Executor mongoExecutor,
+                              @Value("${patient.home.upcoming-limit:20}") int upcomingLimit,
+                              @Value("${patient.home.prescription-limit:20}") int prescriptionLimit,
+                              @Value("${patient.home.timeout:PT5S}") Duration timeout) {
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.tokenService = tokenService;
+        this.shards = shards;
+        this.mysqlExecutor = mysqlExecutor;
+        this.mongoExecutor = mongoExecutor;
+        this.upcomingLimit = upcomingLimit;
+        this.prescriptionLimit = prescriptionLimit;
+        this.timeout = timeout;
+    }
+
+    // Completes once every store has answered; the calling (servlet) thread only parses the token and starts the lookups
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getPatientHome(String token) {
+        String email;
+        try {
+            email = tokenService.extractIdentifier(token);
+        } catch (Exception ex) {
+            return CompletableFuture.completedFuture(error("Unauthorized", HttpStatus.UNAUTHORIZED));
+        }
+
+        try {
+            CompletableFuture<Patient> patientFuture = CompletableFuture.supplyAsync(
+                    () -> patientRepository.findByEmail(email), mysqlExecutor);
+
+            // One row more than shown tells whether the "future" filter has a next page
+            CompletableFuture<List<AppointmentDTO>> upcomingFuture = CompletableFuture.supplyAsync(
+                    () -> shards.onEveryShard(() -> appointmentRepository.findUpcomingByPatientEmail(email, Limit.of(upcomingLimit + 1)))
+                            .stream()
+                            .flatMap(List::stream)
+                            .sorted(Comparator.comparing(Appointment::getAppointmentTime).thenComparing(Appointment::getId))
+                            .limit(upcomingLimit + 1)
+                            .map(AppointmentMapper::from)
+                            .collect(Collectors.toList()),
+                    mysqlExecutor);
+
+            // Each shard contributes its latest appointments; the latest prescriptions among them are kept
+            CompletableFuture<List<Prescription>> prescriptionsFuture = CompletableFuture.supplyAsync(
+                            () -> shards.onEveryShard(() -> appointmentRepository.findRecentIdsByPatientEmail(email, Limit.of(prescriptionLimit)))
+                                    .stream()
+                                    .flatMap(List::stream)
+                                    .collect(Collectors.toList()),
+                            mysqlExecutor)
+                    .thenApplyAsync(ids -> ids.isEmpty()
+                            ? List.<Prescription>of()
+                            : prescriptionRepository.findByAppointmentIdIn(ids).stream()
+                                    .sorted(Comparator.comparing(Prescription::getIssuedAt,
+                                            Comparator.nullsLast(Comparator.reverseOrder())))
+                                    .limit(prescriptionLimit)
+                                    .collect(Collectors.toList()), mongoExecutor);
+
+            return CompletableFuture.allOf(patientFuture, upcomingFuture, prescriptionsFuture)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .handle((done, failure) -> {
+                        if (failure != null) {
+                            return failed(failure instanceof CompletionException && failure.getCause() != null
+                                    ? failure.getCause() : failure);
+                        }
+                        Patient patient = patientFuture.join();
+                        if (patient == null) {
+                            return error("Unauthorized", HttpStatus.UNAUTHORIZED);
+                        }
+                        List<AppointmentDTO> upcoming = upcomingFuture.join();
+                        String nextCursor = null;
+                        if (upcoming.size() > upcomingLimit) {
+                            upcoming = upcoming.subList(0, upcomingLimit);
+                            nextCursor = AppointmentCursor.after(upcoming.get(upcomingLimit - 1)).encode();
+                        }
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("patient", patient);
+                        response.put("appointments", upcoming);
+                        response.put("nextCursor", nextCursor);
+                        response.put("prescriptions", prescriptionsFuture.join());
+                        return ResponseEntity.ok(response);
+                    });
+        } catch (RejectedExecutionException ex) {
+            return CompletableFuture.completedFuture(failed(ex));
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> failed(Throwable failure) {
+        if (failure instanceof TimeoutException || failure instanceof RejectedExecutionException) {
+            logger.warn("Patient home not served in time: {}", failure.toString());
+            return error("Service busy, please retry.", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        logger.error("Error loading patient home: {}", failure.getMessage(), failure);
+        return error("Failed to load patient home.", HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(String message, HttpStatus status) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", message);
+        return ResponseEntity.status(status).body(response);
+    }
+
+// 1. **Purpose**:
+//    - Serves everything the patient pages need after login in one request: the patient's details, upcoming appointments and recent prescriptions.
+//    - The token is parsed once; the patient lookup doubles as the validation that `UtilityService.validateToken` would otherwise repeat.
+
+// 2. **Parallel Fetches**:
+//    - The patient, the upcoming appointments and the recent appointment IDs are all looked up by the token's email, so they run concurrently on the MySQL executor.
+//    - The prescriptions for those appointment IDs are then fetched with one `$in` query on the Mongo executor, while the other MySQL queries are still in flight.
+//    - The response time is therefore bounded by the slowest branch instead of the sum of all calls; `patient.home.timeout` caps the wait.
+//    - With sharding, both appointment queries run on every shard in parallel and their results are merged (see AppointmentShards).
+//    - The upcoming appointments are the first page of the `future` patient filter, so `nextCursor` continues that filter where the home response ends.
+
+// 3. **Error Handling**:
+//    - An invalid token or unknown patient returns `401 Unauthorized`.
+//    - A timeout or a full executor queue returns `503 Service Unavailable`; any other failure returns `500 Internal Server Error`.
+
+// 4. **Asynchronous Response**:
+//    - The method returns as soon as the lookups are submitted, and `PatientController` hands the `CompletableFuture` to Spring MVC, so no servlet thread waits on either store.
+//    - The response is built on whichever executor thread completes the last lookup.
+}
@@ -0,0 +1,53 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Component
+public class PatientSearchNameBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientSearchNameBackfill.class);
+
+    // Must match the size of PatientRepository.findTop500BySearchNameIsNull
+    private static final int CHUNK_SIZE = 500;
+
+    private final PatientRepository patientRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public PatientSearchNameBackfill(PatientRepository patientRepository,
+                                     TransactionTemplate transactionTemplate) {
+        this.patientRepository = patientRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int total = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status -> {
+                List<Patient> chunk = patientRepository.findTop500BySearchNameIsNull();
+                chunk.forEach(Patient::refreshSearchName);
+                return chunk.size();
+            });
+            total += updated;
+        } while (updated == CHUNK_SIZE);
+
+        if (total > 0) {
+            logger.info("Filled in search names for {} patients", total);
+        }
+    }
+
+// 1. **Purpose**:
+//    - Patients created before the 'searchName' column existed have it set to NULL, so the doctor day view cannot find them by name.
+//    - Once the application is ready, this component fills the column in, one chunk of 500 patients per transaction.
+//    - The changed entities are flushed by dirty checking when each chunk's transaction commits.
+}
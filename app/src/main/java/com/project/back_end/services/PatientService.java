@@ -1,22 +1,30 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.AppointmentCursor;
 import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentPage;
+import com.project.back_end.config.AppointmentShards;
 import com.project.back_end.mapper.AppointmentMapper;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
 import com.project.back_end.repo.PatientRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PatientService {
@@ -64,27 +72,52 @@ public class PatientService {
 //    - It returns the patient's information in the response body.
     //    - Instruction: Make sure that the token extraction process works correctly and patient details are fetched properly based on the extracted email.
 
-// 9. **Handling Exceptions and Errors**:
+// 9. **Pagination**:
+//    - The appointment history and filter methods return one page at a time, ordered by appointment time and id.
+//    - `size` defaults to `patient.history.page-size` (capped at `patient.history.max-page-size`); the response carries a `nextCursor` to pass back for the following page, or null on the last page.
+//    - Pages are read with a keyset query, so the first page of a long history costs the same as the first page of a short one.
+//    - Old completed appointments live in the archive table (see AppointmentArchiveJob); each page reads the same keyset page from both tables and merges them.
+//    - With sharding, both tables are read on every shard in parallel (see AppointmentShards) and all the pages are merged by time.
+//    - A page is an `AppointmentPage` record (`appointments`, `nextCursor`) rather than a map; the JSON is the same.
+
+// 10. **Handling Exceptions and Errors**:
 //    - The service methods handle exceptions using try-catch blocks and log any issues that occur. If an error occurs during database operations, the service responds with appropriate HTTP status codes (e.g., `500 Internal Server Error`).
 //    - Instruction: Ensure that error handling is consistent across the service, with proper logging and meaningful error messages returned to the client.
 
-// 10. **Use of DTOs (Data Transfer Objects)**:
+// 11. **Use of DTOs (Data Transfer Objects)**:
 //    - The service uses `AppointmentDTO` to transfer appointment-related data between layers. This ensures that sensitive or unnecessary data (e.g., password or private patient information) is not exposed in the response.
 //    - Instruction: Ensure that DTOs are used appropriately to limit the exposure of internal data and only send the relevant fields to the client.
 
 
     private static final Logger logger = LoggerFactory.getLogger(PatientService.class);
 
+    // Order of history pages, matching the ORDER BY of the keyset queries
+    private static final Comparator<AppointmentDTO> PAGE_ORDER = Comparator
+            .comparing(AppointmentDTO::getAppointmentTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(AppointmentDTO::getId);
+
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
     private final TokenService tokenService;
+    private final AppointmentShards shards;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     public PatientService(PatientRepository patientRepository,
                           AppointmentRepository appointmentRepository,
-                          TokenService tokenService) {
+                          ArchivedAppointmentRepository archivedAppointmentRepository,
+                          TokenService tokenService,
+                          AppointmentShards shards,
+                          @Value("${patient.history.page-size:20}") int defaultPageSize,
+                          @Value("${patient.history.max-page-size:100}") int maxPageSize) {
         this.patientRepository = patientRepository;
         this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
         this.tokenService = tokenService;
+        this.shards = shards;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     // 1. createPatient
@@ -99,8 +132,8 @@ public class PatientService {
     }
 
     // 2. getPatientAppointment
-    @Transactional
-    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Object> getPatientAppointment(Long id, String token, String cursor, Integer size) {
         Map<String, Object> response = new HashMap<>();
         try {
             String email = tokenService.extractIdentifier(token);
@@ -110,13 +143,10 @@ public class PatientService {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
 
-            List<AppointmentDTO> appointments = appointmentRepository.findByPatientId(id)
-                    .stream()
-                    .map(AppointmentMapper::from)
-                    .collect(Collectors.toList());
-
-            response.put("appointments", appointments);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(appointmentPage(id, null, null, cursor, size));
+        } catch (IllegalArgumentException ex) {
+            response.put("error", ex.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception ex) {
             logger.error("Error retrieving appointments: {}", ex.getMessage(), ex);
             response.put("error", "Failed to retrieve appointments.");
@@ -125,7 +155,7 @@ public class PatientService {
     }
 
     // 3. filterByCondition
-    public ResponseEntity<Map<String, Object>> filterByCondition(String condition, Long id) {
+    public ResponseEntity<Object> filterByCondition(String condition, Long id, String cursor, Integer size) {
         Map<String, Object> response = new HashMap<>();
         try {
             int status = switch (condition.toLowerCase()) {
@@ -134,16 +164,7 @@ public class PatientService {
                 default -> throw new IllegalArgumentException("Invalid condition value.");
             };
 
-            // findByPatientIdAndStatus
-
-            List<AppointmentDTO> appointments = appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(
-                    id, status)
-                    .stream()
-                    .map(AppointmentMapper::from)
-                    .collect(Collectors.toList());
-
-            response.put("appointments", appointments);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(appointmentPage(id, status, null, cursor, size));
         } catch (IllegalArgumentException ex) {
             logger.warn("Invalid filter condition: {}", condition);
             response.put("error", ex.getMessage());
@@ -156,18 +177,13 @@ public class PatientService {
     }
 
     // 4. filterByDoctor
-    public ResponseEntity<Map<String, Object>> filterByDoctor(String name, Long patientId) {
+    public ResponseEntity<Object> filterByDoctor(String name, Long patientId, String cursor, Integer size) {
         Map<String, Object> response = new HashMap<>();
         try {
-            // findByPatientIdAndDoctorNameContainingIgnoreCase
-            List<AppointmentDTO> appointments = appointmentRepository
-                    .filterByDoctorNameAndPatientId(name, patientId)
-                    .stream()
-                    .map(AppointmentMapper::from)
-                    .collect(Collectors.toList());
-
-            response.put("appointments", appointments);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(appointmentPage(patientId, null, name, cursor, size));
+        } catch (IllegalArgumentException ex) {
+            response.put("error", ex.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception ex) {
             logger.error("Error filtering by doctor: {}", ex.getMessage(), ex);
             response.put("error", "Failed to filter appointments by doctor.");
@@ -176,7 +192,8 @@ public class PatientService {
     }
 
     // 5. filterByDoctorAndCondition
-    public ResponseEntity<Map<String, Object>> filterByDoctorAndCondition(String condition, String name, long patientId) {
+    public ResponseEntity<Object> filterByDoctorAndCondition(String condition, String name, long patientId,
+                                                             String cursor, Integer size) {
         Map<String, Object> response = new HashMap<>();
         try {
             int status = switch (condition.toLowerCase()) {
@@ -185,14 +202,7 @@ public class PatientService {
                 default -> throw new IllegalArgumentException("Invalid condition value.");
             };
 
-            List<AppointmentDTO> appointments = appointmentRepository
-                    .filterByDoctorNameAndPatientIdAndStatus(name,patientId,status)
-                    .stream()
-                    .map(AppointmentMapper::from)
-                    .collect(Collectors.toList());
-
-            response.put("appointments", appointments);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(appointmentPage(patientId, status, name, cursor, size));
         } catch (IllegalArgumentException ex) {
             logger.warn("Invalid condition: {}", condition);
             response.put("error", ex.getMessage());
@@ -204,6 +214,42 @@ public class PatientService {
         }
     }
 
+    // Loads one keyset page of a patient's appointments from the hot and archive tables;
+    // fetches one extra row to know whether a next page exists
+    private AppointmentPage appointmentPage(Long patientId, Integer status, String doctorName,
+                                            String cursor, Integer size) {
+        AppointmentCursor after = AppointmentCursor.decode(cursor);
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        LocalDateTime afterTime = after != null ? after.appointmentTime() : null;
+        Long afterId = after != null ? after.id() : null;
+        Limit limit = Limit.of(pageSize + 1);
+
+        // A patient sees doctors on every shard, so each shard's page is read in parallel and the pages are merged
+        List<AppointmentDTO> appointments = shards.onEveryShard(() -> {
+                    // Only completed appointments are archived, so scheduled ones are never looked up there
+                    Stream<AppointmentDTO> archived = status != null && status == 0 ? Stream.empty()
+                            : archivedAppointmentRepository.findPatientAppointmentPage(
+                                    patientId, status, doctorName, afterTime, afterId, limit).stream().map(AppointmentMapper::from);
+                    return Stream.concat(
+                                    appointmentRepository.findPatientAppointmentPage(
+                                            patientId, status, doctorName, afterTime, afterId, limit).stream().map(AppointmentMapper::from),
+                                    archived)
+                            .toList();
+                }).stream()
+                .flatMap(List::stream)
+                .sorted(PAGE_ORDER)
+                .limit(pageSize + 1)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (appointments.size() > pageSize) {
+            appointments = appointments.subList(0, pageSize);
+            nextCursor = AppointmentCursor.after(appointments.get(pageSize - 1)).encode();
+        }
+
+        return new AppointmentPage(appointments, nextCursor);
+    }
+
     // 6. getPatientDetails
     public ResponseEntity<Map<String, Object>> getPatientDetails(String token) {
         Map<String, Object> response = new HashMap<>();
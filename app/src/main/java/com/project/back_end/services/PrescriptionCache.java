@@ -0,0 +1,88 @@
+package com.project.back_end.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.project.back_end.models.Prescription;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+@Component
+public class PrescriptionCache {
+
+    private final AsyncCache<Long, Optional<Prescription>> cache;
+
+    public PrescriptionCache(MeterRegistry meterRegistry,
+                             @Value("${prescriptions.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${prescriptions.cache.ttl:PT1H}") Duration ttl,
+                             @Value("${prescriptions.cache.negative-ttl:PT1M}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, Optional<Prescription>>() {
+                    @Override
+                    public long expireAfterCreate(Long appointmentId, Optional<Prescription> value, long currentTime) {
+                        return (value.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long appointmentId, Optional<Prescription> value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(appointmentId, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long appointmentId, Optional<Prescription> value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "prescriptions");
+    }
+
+    // Concurrent misses for the same appointment share a single load
+    public Mono<Optional<Prescription>> get(Long appointmentId, Function<Long, Mono<Prescription>> loader) {
+        return Mono.fromFuture(() -> cache.get(appointmentId, (id, executor) -> loader.apply(id)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture()));
+    }
+
+    public void put(Prescription prescription) {
+        cache.put(prescription.getAppointmentId(), CompletableFuture.completedFuture(Optional.of(prescription)));
+    }
+
+    public void putAbsent(Long appointmentId) {
+        cache.put(appointmentId, CompletableFuture.completedFuture(Optional.empty()));
+    }
+
+    public void invalidate(Long appointmentId) {
+        cache.synchronous().invalidate(appointmentId);
+    }
+
+    public void invalidateAll(Collection<Long> appointmentIds) {
+        cache.synchronous().invalidateAll(appointmentIds);
+    }
+
+// 1. **Purpose**:
+//    - Prescriptions are written once and read many times, so lookups by appointment ID are served from this bounded in-process cache.
+//    - Appointments without a prescription are cached too (negative caching), for a much shorter time than prescriptions that exist.
+
+// 2. **Write-through**:
+//    - `PrescriptionService` puts every prescription it saves, so a negative entry never outlives the prescription it hides.
+//    - Components that change prescriptions behind the service's back must invalidate the affected appointment IDs.
+
+// 3. **Configuration and Metrics**:
+//    - `prescriptions.cache.maximum-size`, `prescriptions.cache.ttl` and `prescriptions.cache.negative-ttl` bound the cache.
+//    - Hits, misses, evictions and size are published through Micrometer as the `cache.*` meters tagged `cache=prescriptions`.
+}
@@ -0,0 +1,120 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.AppointmentShards;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class PrescriptionOwnerBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrescriptionOwnerBackfill.class);
+
+    private static final int CHUNK_SIZE = 500;
+    private static final ObjectId FIRST_ID = new ObjectId(new byte[12]);
+
+    private final PrescriptionRepository prescriptionRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final AppointmentShards shards;
+    private final PrescriptionCache prescriptionCache;
+
+    public PrescriptionOwnerBackfill(PrescriptionRepository prescriptionRepository,
+                                     AppointmentRepository appointmentRepository,
+                                     ArchivedAppointmentRepository archivedAppointmentRepository,
+                                     AppointmentShards shards,
+                                     PrescriptionCache prescriptionCache) {
+        this.prescriptionRepository = prescriptionRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.shards = shards;
+        this.prescriptionCache = prescriptionCache;
+    }
+
+    // Owner and time of an appointment, read from either the appointment or the archived_appointment table
+    private record Owners(Long appointmentId, Long patientId, Long doctorId, LocalDateTime appointmentTime) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int total = 0;
+        int orphans = 0;
+        ObjectId after = FIRST_ID;
+        while (true) {
+            List<Prescription> chunk = prescriptionRepository.findIncompleteAfter(after, Limit.of(CHUNK_SIZE));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            after = new ObjectId(chunk.get(chunk.size() - 1).getId());
+            Map<Long, Owners> owners = owners(chunk.stream().map(Prescription::getAppointmentId).collect(Collectors.toSet()));
+
+            List<Prescription> resolved = new ArrayList<>();
+            for (Prescription prescription : chunk) {
+                Owners owner = owners.get(prescription.getAppointmentId());
+                if (owner == null) {
+                    orphans++;
+                    continue;
+                }
+                prescription.setPatientId(owner.patientId());
+                prescription.setDoctorId(owner.doctorId());
+                if (prescription.getIssuedAt() == null) {
+                    prescription.setIssuedAt(owner.appointmentTime());
+                }
+                resolved.add(prescription);
+            }
+            if (!resolved.isEmpty()) {
+                prescriptionRepository.saveAll(resolved);
+                prescriptionCache.invalidateAll(resolved.stream().map(Prescription::getAppointmentId).collect(Collectors.toList()));
+                total += resolved.size();
+            }
+        }
+
+        if (total > 0) {
+            logger.info("Filled in owners and issue times for {} prescriptions", total);
+        }
+        if (orphans > 0) {
+            logger.warn("{} prescriptions reference appointments that no longer exist", orphans);
+        }
+    }
+
+    // Looks the appointments up on the shards that hold them, in the live table and in the archive
+    private Map<Long, Owners> owners(Set<Long> appointmentIds) {
+        return shards.onShardsOfAppointments(appointmentIds, ids -> {
+            List<Owners> found = new ArrayList<>();
+            appointmentRepository.findAllById(ids).forEach(appointment -> found.add(new Owners(appointment.getId(),
+                    appointment.getPatient().getId(), appointment.getDoctor().getId(), appointment.getAppointmentTime())));
+            archivedAppointmentRepository.findAllById(ids).forEach(appointment -> found.add(new Owners(appointment.getId(),
+                    appointment.getPatient().getId(), appointment.getDoctor().getId(), appointment.getAppointmentTime())));
+            return found;
+        }).stream().collect(Collectors.toMap(Owners::appointmentId, Function.identity(), (live, archived) -> live));
+    }
+
+// 1. **Purpose**:
+//    - Prescriptions stored before 'patientId', 'doctorId' and 'issuedAt' existed would be missing from the patient history and the medication usage report.
+//    - Once the application is ready, this component copies both IDs from each prescription's appointment and, where 'issuedAt' is missing,
+//      uses the appointment time as the issue time.
+
+// 2. **Paging**:
+//    - Prescriptions are read 500 at a time in '_id' order, each page starting after the last ID of the previous one, so each is visited once.
+//    - Prescriptions whose appointment no longer exists are skipped and counted; they cannot hold back the ones after them.
+
+// 3. **Resolving appointments**:
+//    - Appointment IDs are looked up on the shard that holds them, in both 'appointment' and 'archived_appointment',
+//      since the archive job moves completed appointments out of the live table.
+}
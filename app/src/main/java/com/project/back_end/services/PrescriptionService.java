@@ -1,59 +1,367 @@
 package com.project.back_end.services;
 
+import com.project.back_end.DTO.MedicationUsage;
+import com.project.back_end.config.AppointmentShards;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Patient;
 import com.project.back_end.models.Prescription;
-import com.project.back_end.repo.PrescriptionRepository;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.ReactivePrescriptionRepository;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.limit;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.skip;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
 
 @Service
 public class PrescriptionService {
 
     private static final Logger logger = LoggerFactory.getLogger(PrescriptionService.class);
-    private final PrescriptionRepository prescriptionRepository;
 
-    public PrescriptionService(PrescriptionRepository prescriptionRepository) {
+    // Largest number of appointment IDs accepted by a single batch lookup
+    public static final int MAX_BATCH_SIZE = 100;
+    // MongoDB error code for a unique index violation
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    // Number of medications returned by the usage report
+    private static final int MEDICATION_USAGE_LIMIT = 50;
+
+    private final ReactivePrescriptionRepository prescriptionRepository;
+    private final PrescriptionCache prescriptionCache;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentShards shards;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final TokenService tokenService;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Validator validator;
+    private final Scheduler mysqlScheduler;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public PrescriptionService(ReactivePrescriptionRepository prescriptionRepository,
+                               PrescriptionCache prescriptionCache,
+                               AppointmentRepository appointmentRepository,
+                               AppointmentShards shards,
+                               PatientRepository patientRepository,
+                               DoctorRepository doctorRepository,
+                               TokenService tokenService,
+                               ReactiveMongoTemplate mongoTemplate,
+                               Validator validator,
+                               @Qualifier("mysqlExecutor") Executor mysqlExecutor,
+                               @Value("${patient.history.page-size:20}") int defaultPageSize,
+                               @Value("${patient.history.max-page-size:100}") int maxPageSize) {
         this.prescriptionRepository = prescriptionRepository;
+        this.prescriptionCache = prescriptionCache;
+        this.appointmentRepository = appointmentRepository;
+        this.shards = shards;
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+        this.tokenService = tokenService;
+        this.mongoTemplate = mongoTemplate;
+        this.validator = validator;
+        this.mysqlScheduler = Schedulers.fromExecutor(mysqlExecutor);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public Mono<ResponseEntity<Map<String, String>>> savePrescription(Prescription prescription) {
+        if (prescription.getAppointmentId() == null) {
+            return Mono.just(new ResponseEntity<>(Map.of("message", "Appointment not found"), HttpStatus.BAD_REQUEST));
+        }
+        return blocking(() -> shards.onAppointmentShard(prescription.getAppointmentId(),
+                () -> appointmentRepository.findById(prescription.getAppointmentId())))
+                .flatMap(appointment -> {
+                    if (appointment.isEmpty()) {
+                        return Mono.just(new ResponseEntity<>(Map.of("message", "Appointment not found"), HttpStatus.BAD_REQUEST));
+                    }
+                    assignOwners(prescription, appointment.get());
+                    return prescriptionRepository.insert(prescription)
+                            .doOnNext(prescriptionCache::put)
+                            .map(saved -> new ResponseEntity<>(Map.of("message", "Prescription saved"), HttpStatus.CREATED));
+                })
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    // Another request saved it first; drop any cached "not found" for this appointment
+                    prescriptionCache.invalidate(prescription.getAppointmentId());
+                    return Mono.just(new ResponseEntity<>(
+                            Map.of("message", "Prescription already exists for this appointment"), HttpStatus.BAD_REQUEST));
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error saving prescription: {}", e.getMessage());
+                    return Mono.just(new ResponseEntity<>(Map.of("error", "Internal Server Error"), HttpStatus.INTERNAL_SERVER_ERROR));
+                });
     }
 
-    public ResponseEntity<Map<String, String>> savePrescription(Prescription prescription) {
-        Map<String, String> response = new HashMap<>();
-        try {
-            if (prescriptionRepository.findByAppointmentId(prescription.getAppointmentId()) != null) {
-                response.put("message", "Prescription already exists for this appointment");
-                return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    public Mono<ResponseEntity<Map<String, Object>>> getPrescription(Long appointmentId) {
+        return prescriptionCache.get(appointmentId, prescriptionRepository::findByAppointmentId)
+                .flatMap(Mono::justOrEmpty)
+                .map(prescription -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("prescription", prescription);
+                    return new ResponseEntity<>(response, HttpStatus.OK);
+                })
+                .defaultIfEmpty(new ResponseEntity<>(
+                        Map.of("message", "No prescription found for the given appointment ID"), HttpStatus.NOT_FOUND))
+                .onErrorResume(e -> {
+                    logger.error("Error retrieving prescription: {}", e.getMessage());
+                    return Mono.just(new ResponseEntity<>(Map.of("error", "Internal Server Error"), HttpStatus.INTERNAL_SERVER_ERROR));
+                });
+    }
+
+    public Mono<ResponseEntity<Map<String, Object>>> getPrescriptions(Collection<Long> appointmentIds) {
+        Set<Long> requested = new LinkedHashSet<>(appointmentIds);
+        if (requested.isEmpty() || requested.size() > MAX_BATCH_SIZE) {
+            return Mono.just(new ResponseEntity<>(
+                    Map.of("message", "Between 1 and " + MAX_BATCH_SIZE + " appointment IDs are required"), HttpStatus.BAD_REQUEST));
+        }
+        return prescriptionRepository.findByAppointmentIdIn(requested)
+                .collectList()
+                .map(prescriptions -> {
+                    Set<Long> missing = new LinkedHashSet<>(requested);
+                    prescriptions.forEach(prescription -> {
+                        missing.remove(prescription.getAppointmentId());
+                        prescriptionCache.put(prescription);
+                    });
+                    missing.forEach(prescriptionCache::putAbsent);
+
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("prescriptions", prescriptions);
+                    response.put("missing", missing);
+                    return new ResponseEntity<>(response, HttpStatus.OK);
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error retrieving prescriptions: {}", e.getMessage());
+                    return Mono.just(new ResponseEntity<>(Map.of("error", "Internal Server Error"), HttpStatus.INTERNAL_SERVER_ERROR));
+                });
+    }
+
+    public Mono<ResponseEntity<Map<String, Object>>> savePrescriptions(List<Prescription> prescriptions) {
+        if (prescriptions == null || prescriptions.isEmpty() || prescriptions.size() > MAX_BATCH_SIZE) {
+            return Mono.just(new ResponseEntity<>(
+                    Map.of("message", "Between 1 and " + MAX_BATCH_SIZE + " prescriptions are required"), HttpStatus.BAD_REQUEST));
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        Map<Long, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < prescriptions.size(); i++) {
+            Prescription prescription = prescriptions.get(i);
+            Set<ConstraintViolation<Prescription>> violations = prescription == null ? Set.of() : validator.validate(prescription);
+            if (prescription == null || !violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .collect(Collectors.joining(", "));
+                results.add(bulkResult(i, prescription == null ? null : prescription.getAppointmentId(), "invalid",
+                        message.isEmpty() ? "Prescription is required" : message));
+            } else if (candidates.putIfAbsent(prescription.getAppointmentId(), i) != null) {
+                results.add(bulkResult(i, prescription.getAppointmentId(), "duplicate",
+                        "Appointment appears more than once in this batch"));
+            } else {
+                results.add(null);
             }
-            prescriptionRepository.save(prescription);
-            response.put("message", "Prescription saved");
-            return new ResponseEntity<>(response, HttpStatus.CREATED);
-        } catch (Exception e) {
-            logger.error("Error saving prescription: {}", e.getMessage());
-            response.put("error", "Internal Server Error");
-            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
         }
+
+        Mono<List<Integer>> toInsert = candidates.isEmpty() ? Mono.just(List.of()) : Mono.zip(
+                prescriptionRepository.findByAppointmentIdIn(candidates.keySet())
+                        .map(Prescription::getAppointmentId)
+                        .collect(Collectors.toSet()),
+                blocking(() -> shards.onShardsOfAppointments(candidates.keySet(), appointmentRepository::findAllById).stream()
+                        .collect(Collectors.toMap(Appointment::getId, Function.identity()))))
+                .map(found -> {
+                    Set<Long> existing = found.getT1();
+                    Map<Long, Appointment> appointments = found.getT2();
+                    List<Integer> indexes = new ArrayList<>();
+                    for (Map.Entry<Long, Integer> candidate : candidates.entrySet()) {
+                        Long appointmentId = candidate.getKey();
+                        int index = candidate.getValue();
+                        if (existing.contains(appointmentId)) {
+                            results.set(index, bulkResult(index, appointmentId, "duplicate",
+                                    "Prescription already exists for this appointment"));
+                        } else if (!appointments.containsKey(appointmentId)) {
+                            results.set(index, bulkResult(index, appointmentId, "invalid", "Appointment not found"));
+                        } else {
+                            assignOwners(prescriptions.get(index), appointments.get(appointmentId));
+                            indexes.add(index);
+                        }
+                    }
+                    return indexes;
+                });
+
+        return toInsert
+                .flatMap(indexes -> indexes.isEmpty() ? Mono.just(List.<BulkWriteError>of()) : mongoTemplate
+                        .bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class)
+                        .insert(indexes.stream().map(prescriptions::get).collect(Collectors.toList()))
+                        .execute()
+                        .map(result -> List.<BulkWriteError>of())
+                        .onErrorResume(e -> bulkWriteErrors(e) != null, e -> Mono.just(bulkWriteErrors(e)))
+                        .doOnNext(errors -> {
+                            for (int index : indexes) {
+                                results.set(index, bulkResult(index, prescriptions.get(index).getAppointmentId(), "created",
+                                        "Prescription saved"));
+                                prescriptionCache.put(prescriptions.get(index));
+                            }
+                            for (BulkWriteError error : errors) {
+                                int index = indexes.get(error.getIndex());
+                                Long appointmentId = prescriptions.get(index).getAppointmentId();
+                                prescriptionCache.invalidate(appointmentId);
+                                results.set(index, error.getCode() == DUPLICATE_KEY_ERROR
+                                        ? bulkResult(index, appointmentId, "duplicate", "Prescription already exists for this appointment")
+                                        : bulkResult(index, appointmentId, "failed", "Internal Server Error"));
+                            }
+                        }))
+                .map(errors -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("created", results.stream().filter(r -> "created".equals(r.get("status"))).count());
+                    response.put("results", results);
+                    return new ResponseEntity<>(response, HttpStatus.OK);
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error saving prescriptions in bulk: {}", e.getMessage());
+                    return Mono.just(new ResponseEntity<>(Map.of("error", "Internal Server Error"), HttpStatus.INTERNAL_SERVER_ERROR));
+                });
     }
 
-    public ResponseEntity<Map<String, Object>> getPrescription(Long appointmentId) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            Prescription prescription = prescriptionRepository.findByAppointmentId(appointmentId);
-            if (prescription == null) {
-                response.put("message", "No prescription found for the given appointment ID");
-                return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+    public Mono<ResponseEntity<Map<String, Object>>> getPatientHistory(String user, String token, Long patientId,
+                                                                       int page, Integer size) {
+        Mono<Boolean> authorized = !"patient".equalsIgnoreCase(user) ? Mono.just(true) : blocking(() -> {
+            Patient patient = patientRepository.findByEmail(tokenService.extractIdentifier(token));
+            return patient != null && Objects.equals(patient.getId(), patientId);
+        });
+
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        int pageNumber = Math.max(page, 0);
+        Aggregation history = newAggregation(
+                match(Criteria.where("patientId").is(patientId)),
+                sort(Sort.by(Sort.Direction.DESC, "issuedAt", "_id")),
+                skip((long) pageNumber * pageSize),
+                limit(pageSize + 1));
+
+        return authorized
+                .flatMap(allowed -> {
+                    if (!allowed) {
+                        return Mono.just(new ResponseEntity<Map<String, Object>>(
+                                Map.of("error", "Unauthorized access."), HttpStatus.UNAUTHORIZED));
+                    }
+                    return mongoTemplate.aggregate(history, Prescription.class, Prescription.class)
+                            .collectList()
+                            .map(prescriptions -> {
+                                boolean hasMore = prescriptions.size() > pageSize;
+                                Map<String, Object> response = new HashMap<>();
+                                response.put("prescriptions", hasMore ? prescriptions.subList(0, pageSize) : prescriptions);
+                                response.put("page", pageNumber);
+                                response.put("hasMore", hasMore);
+                                return new ResponseEntity<>(response, HttpStatus.OK);
+                            });
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error retrieving prescription history: {}", e.getMessage());
+                    return Mono.just(new ResponseEntity<>(Map.of("error", "Internal Server Error"), HttpStatus.INTERNAL_SERVER_ERROR));
+                });
+    }
+
+    public Mono<ResponseEntity<Map<String, Object>>> getMedicationUsage(String token) {
+        return blocking(() -> doctorRepository.findByEmail(tokenService.extractIdentifier(token)).getId())
+                .flatMap(doctorId -> {
+                    Aggregation usage = newAggregation(
+                            match(Criteria.where("doctorId").is(doctorId)),
+                            group("medication").count().as("prescriptions").addToSet("patientId").as("patientIds"),
+                            project()
+                                    .and("_id").as("medication")
+                                    .and("prescriptions").as("prescriptions")
+                                    .and(ArrayOperators.Size.lengthOfArray("patientIds")).as("patients"),
+                            sort(Sort.Direction.DESC, "prescriptions"),
+                            limit(MEDICATION_USAGE_LIMIT));
+                    return mongoTemplate.aggregate(usage, Prescription.class, MedicationUsage.class).collectList();
+                })
+                .map(medications -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("medications", medications);
+                    return new ResponseEntity<>(response, HttpStatus.OK);
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error retrieving medication usage: {}", e.getMessage());
+                    return Mono.just(new ResponseEntity<>(Map.of("error", "Internal Server Error"), HttpStatus.INTERNAL_SERVER_ERROR));
+                });
+    }
+
+    // Token validation looks the user up in MySQL, so controllers chain on this rather than validating on the servlet thread
+    public Mono<Boolean> isAuthorized(String token, String user) {
+        return blocking(() -> tokenService.validateToken(token, user));
+    }
+
+    // Runs a blocking (JPA) call on the bounded MySQL pool, never on the thread that delivers MongoDB results
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(mysqlScheduler);
+    }
+
+    // Per-document write errors of a failed bulk insert, whichever exception the driver error was translated to
+    private static List<BulkWriteError> bulkWriteErrors(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BulkOperationException bulkException) {
+                return bulkException.getErrors();
+            }
+            if (cause instanceof MongoBulkWriteException bulkException) {
+                return bulkException.getWriteErrors();
             }
-            response.put("prescription", prescription);
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (Exception e) {
-            logger.error("Error retrieving prescription: {}", e.getMessage());
-            response.put("error", "Internal Server Error");
-            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
         }
+        return null;
+    }
+
+    // Copies the owning patient and doctor from the appointment; their IDs are read without loading either row
+    private static void assignOwners(Prescription prescription, Appointment appointment) {
+        prescription.setPatientId(appointment.getPatient().getId());
+        prescription.setDoctorId(appointment.getDoctor().getId());
+        prescription.setIssuedAt(LocalDateTime.now());
+    }
+
+    private static Map<String, Object> bulkResult(int index, Long appointmentId, String status, String message) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("index", index);
+        result.put("appointmentId", appointmentId);
+        result.put("status", status);
+        result.put("message", message);
+        return result;
     }
 
  // 1. **Add @Service Annotation**:
@@ -62,27 +370,55 @@ public class PrescriptionService {
 //    - Instruction: Ensure the `@Service` annotation is applied to mark this class as a Spring-managed service.
 
 // 2. **Constructor Injection for Dependencies**:
-//    - The `PrescriptionService` class depends on the `PrescriptionRepository` to interact with the database.
+//    - The `PrescriptionService` class depends on the `ReactivePrescriptionRepository` and `ReactiveMongoTemplate` to interact with the database.
 //    - It is injected through the constructor, ensuring proper dependency management and enabling testing.
+//    - Every method returns a `Mono`: MongoDB calls go through the reactive driver, and the few MySQL lookups run on the `mysqlExecutor` pool, so no servlet thread waits on either store.
 //    - Instruction: Constructor injection is a good practice, ensuring that all necessary dependencies are available at the time of service initialization.
 
 // 3. **savePrescription Method**:
-//    - This method saves a new prescription to the database.
-//    - Before saving, it checks if a prescription already exists for the same appointment (using the appointment ID).
-//    - If a prescription exists, it returns a `400 Bad Request` with a message stating the prescription already exists.
+//    - This method saves a new prescription to the database with a single insert.
+//    - The patient and doctor IDs are copied from the appointment (which must exist), together with the time the prescription was issued.
+//    - The unique index on `appointmentId` rejects the insert if a prescription already exists for the same appointment, even when two requests race.
+//    - If a prescription exists (duplicate key error), it returns a `400 Bad Request` with a message stating the prescription already exists.
 //    - If no prescription exists, it saves the new prescription and returns a `201 Created` status with a success message.
 //    - Instruction: Handle errors by providing appropriate status codes and messages, ensuring that multiple prescriptions for the same appointment are not saved.
 
 // 4. **getPrescription Method**:
 //    - Retrieves a prescription associated with a specific appointment based on the `appointmentId`.
+//    - Reads go through `PrescriptionCache`, so repeated views of the same appointment (including "not found") do not reach MongoDB.
 //    - If a prescription is found, it returns it within a map wrapped in a `200 OK` status.
 //    - If there is an error while fetching the prescription, it logs the error and returns a `500 Internal Server Error` status with an error message.
 //    - Instruction: Ensure that this method handles edge cases, such as no prescriptions found for the given appointment, by returning meaningful responses.
 
-// 5. **Exception Handling and Error Responses**:
-//    - Both methods (`savePrescription` and `getPrescription`) contain try-catch blocks to handle exceptions that may occur during database interaction.
+// 5. **getPrescriptions Method**:
+//    - Retrieves the prescriptions of up to `MAX_BATCH_SIZE` appointments with a single `$in` query on the indexed `appointmentId` field.
+//    - Returns the prescriptions found and, under `missing`, the requested appointment IDs that have no prescription.
+//    - An empty or oversized request returns a `400 Bad Request`.
+
+// 6. **savePrescriptions Method**:
+//    - Saves a batch of up to `MAX_BATCH_SIZE` prescriptions (e.g. a doctor's end-of-day submission) in one request.
+//    - Each prescription is validated; repeated appointment IDs inside the batch and prescriptions that already exist (found with one `$in` query) are reported as duplicates.
+//    - The remaining prescriptions are written with a single unordered bulk insert, so one failing document does not stop the others.
+//    - A duplicate key error from the bulk write (a concurrent save won the race) is reported as a duplicate for that item.
+//    - Returns `200 OK` with the number created and a per-item result (`index`, `appointmentId`, `status`: created / duplicate / invalid / failed, `message`).
+
+// 7. **getPatientHistory Method**:
+//    - Returns one page of a patient's prescriptions, newest first, with an aggregation pipeline ($match, $sort, $skip, $limit) on the {patientId, issuedAt} index.
+//    - Doctors may read any patient's history; a patient token may only read its own.
+//    - The response carries the page number and a `hasMore` flag.
+
+// 8. **getMedicationUsage Method**:
+//    - Aggregates the prescriptions written by the doctor in the token, grouped by medication, with the number of prescriptions and distinct patients for each.
+//    - The $match stage uses the {doctorId, medication} index; the 50 most prescribed medications are returned.
+
+// 9. **Exception Handling and Error Responses**:
+//    - Every method ends its pipeline with `onErrorResume` to handle exceptions that may occur during database interaction.
 //    - If an error occurs, the method logs the error and returns an HTTP `500 Internal Server Error` response with a corresponding error message.
 //    - Instruction: Ensure that all potential exceptions are handled properly, and meaningful responses are returned to the client.
 
+// 10. **isAuthorized Method**:
+//    - Validates a token for a role on the `mysqlExecutor` pool, as the check reads the user from MySQL.
+//    - `PrescriptionController` runs each endpoint after it, so the servlet thread is released before any store is touched.
+
 
 }
@@ -111,11 +111,10 @@ public class UtilityService {
             Doctor doctor = doctorOptional.get();
             LocalDate date = appointment.getAppointmentTime().toLocalDate();
             List<String> availableSlots = doctorService.getDoctorAvailability(doctor.getId(), date);
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-            String requestedTime = appointment.getAppointmentTime().format(formatter);
+            String requestedTime = appointment.getAppointmentTime().format(DateTimeFormatter.ofPattern("HH:mm"));
             boolean match = availableSlots.stream()
-                    .anyMatch(slot -> slot.startsWith(requestedTime.substring(0, 16)));
-            logger.info("Appointment validation result for doctor {} on {}: {}", doctor.getId(), requestedTime, match);
+                    .anyMatch(slot -> DoctorService.slotStart(slot).equals(requestedTime));
+            logger.info("Appointment validation result for doctor {} on {}: {}", doctor.getId(), appointment.getAppointmentTime(), match);
             return match ? 1 : 0;
         }
         logger.warn("Appointment validation failed: Doctor not found");
@@ -150,18 +149,22 @@ public class UtilityService {
         }
     }
 
-    public ResponseEntity<Map<String, Object>> filterPatient(String token, String condition, String name) {
+    public ResponseEntity<Object> filterPatient(String token, String condition, String name,
+                                                String cursor, Integer size) {
         try {
             String email = tokenService.extractIdentifier(token);
             Patient patient = patientRepository.findByEmail(email);
+            // The patient page sends the literal "null" for a filter it leaves unset
+            condition = isUnset(condition) ? null : condition;
+            name = isUnset(name) ? null : name;
             if (condition != null && name != null) {
-                return patientService.filterByDoctorAndCondition(condition, name, patient.getId());
+                return patientService.filterByDoctorAndCondition(condition, name, patient.getId(), cursor, size);
             } else if (condition != null) {
-                return patientService.filterByCondition(condition, patient.getId());
+                return patientService.filterByCondition(condition, patient.getId(), cursor, size);
             } else if (name != null) {
-                return patientService.filterByDoctor(name, patient.getId());
+                return patientService.filterByDoctor(name, patient.getId(), cursor, size);
             } else {
-                return patientService.getPatientAppointment(patient.getId(), token);
+                return patientService.getPatientAppointment(patient.getId(), token, cursor, size);
             }
         } catch (Exception e) {
             logger.error("Error filtering patient appointments: {}", e.getMessage());
@@ -169,6 +172,10 @@ public class UtilityService {
         }
     }
 
+    private static boolean isUnset(String filter) {
+        return filter == null || filter.equalsIgnoreCase("null") || filter.trim().isEmpty();
+    }
+
     // 4. Return Success Response
     public ResponseEntity<Map<String, Object>> success(String message) {
         Map<String, Object> response = new HashMap<>();
@@ -243,7 +250,8 @@ public class UtilityService {
 // This method filters a patient's appointment history based on condition and doctor name.
 // - It extracts the email from the JWT token to identify the patient.
 // - Depending on which filters (condition, doctor name) are provided, it delegates the filtering logic to PatientService.
-// - If no filters are provided, it retrieves all appointments for the patient.
+// - If no filters are provided, it retrieves all appointments for the patient; "null" or blank path segments count as not provided.
+// - Results are paginated: `cursor` and `size` are passed through to PatientService, which returns a `nextCursor` for the following page.
 // This flexible method supports patient-specific querying and enhances user experience on the client side.
 
 
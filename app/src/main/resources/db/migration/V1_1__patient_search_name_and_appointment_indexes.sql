@@ -0,0 +1,9 @@
+-- Schema added while ddl-auto=update still managed it, and so missing from databases baselined at V1.
+
+-- Normalized patient name for the doctor day-view search; filled in by PatientSearchNameBackfill at startup
+alter table patient add column search_name varchar(100);
+
+-- A doctor's day view, the status job's scan of past appointments, and a patient's appointments in time order
+create index idx_appointment_doctor_time on appointment (doctor_id, appointment_time);
+create index idx_appointment_status_time on appointment (status, appointment_time);
+create index idx_appointment_patient_time on appointment (patient_id, appointment_time);
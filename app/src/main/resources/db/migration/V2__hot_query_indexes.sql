@@ -0,0 +1,11 @@
+-- Indexes for the lookups made on (almost) every request.
+-- The unique constraints fail on existing duplicates; resolve those before migrating.
+
+-- Patient appointment lists filtered by status (upcoming, past) in time order
+create index idx_appointment_patient_status_time on appointment (patient_id, status, appointment_time);
+
+-- Login, token validation and signup checks look these up by value
+alter table doctor add constraint uk_doctor_email unique (email);
+alter table patient add constraint uk_patient_email unique (email);
+alter table patient add constraint uk_patient_phone unique (phone);
+alter table admin add constraint uk_admin_username unique (username);
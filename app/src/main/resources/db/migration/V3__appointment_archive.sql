@@ -0,0 +1,20 @@
+-- Completed appointments older than appointments.archive-job.age are moved here by AppointmentArchiveJob,
+-- so the hot appointment table and its indexes stay small. Rows keep their original id.
+
+create table archived_appointment (
+    id bigint not null,
+    doctor_id bigint not null,
+    patient_id bigint not null,
+    appointment_time datetime(6),
+    status integer not null,
+    archived_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_archived_appointment_patient_time on archived_appointment (patient_id, appointment_time);
+create index idx_archived_appointment_doctor_time on archived_appointment (doctor_id, appointment_time);
+
+alter table archived_appointment
+    add constraint fk_archived_appointment_doctor foreign key (doctor_id) references doctor (id);
+alter table archived_appointment
+    add constraint fk_archived_appointment_patient foreign key (patient_id) references patient (id);
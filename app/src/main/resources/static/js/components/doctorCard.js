@@ -1,9 +1,5 @@
 /*
-Import the overlay function for booking appointments from loggedPatient.js
-
-  Import the deleteDoctor API function to remove doctors (admin role) from docotrServices.js
-
-  Import function to fetch patient details (used during booking) from patientServices.js
+Import the deleteDoctor API function to remove doctors (admin role) from docotrServices.js
 
   Function to create and return a DOM element for a single doctor card
     Create the main container for the doctor card
@@ -31,9 +27,8 @@ Import the overlay function for booking appointments from loggedPatient.js
     === LOGGED-IN PATIENT ROLE ACTIONS === 
       Create a book now button
       Handle booking logic for logged-in patient   
-        Redirect if token not available
-        Fetch patient data with token
-        Show booking overlay UI with doctor and patient info
+        Call the page's booking handler (loggedPatient.js opens the booking overlay
+        with the patient it loaded from the patient home endpoint)
       Add button to actions container
    
   Append doctor info and action buttons to the car
@@ -42,11 +37,10 @@ Import the overlay function for booking appointments from loggedPatient.js
 // doctorCard.js
 
 import { deleteDoctorById } from "../services/doctorServices.js";
-import { getPatientDetails } from "../services/patientServices.js";
-import { openBookingOverlay } from "../services/loggedPatient.js";
 
 // Define the Function
-export function createDoctorCard(doctor) {
+// onBook(event, doctor) handles "Book Now" for a logged-in patient; the page that shows the cards supplies it
+export function createDoctorCard(doctor, onBook) {
   // Create the Main Card Container
   const card = document.createElement("div");
   card.classList.add("doctor-card");
@@ -130,11 +124,8 @@ export function createDoctorCard(doctor) {
     bookNow.classList.add("book-btn");
 
     bookNow.addEventListener("click", async (e) => {
-      const token = localStorage.getItem("token");
-
       try {
-        const patientData = await getPatientDetails(token);
-        openBookingOverlay(e, doctor, patientData);
+        await onBook(e, doctor);
       } catch (error) {
         console.error("Booking failed:", error);
         alert("Unable to book appointment. Please try again.");
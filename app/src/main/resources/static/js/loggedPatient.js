@@ -3,12 +3,24 @@ import { getDoctors } from './services/doctorServices.js';
 import { createDoctorCard } from './components/doctorCard.js';
 import { filterDoctors } from './services/doctorServices.js';
 import { bookAppointment } from './services/appointmentRecordService.js';
+import { getPatientHome } from './services/patientServices.js';
 
+// Requested once, while the page loads: the patient (needed for booking), their upcoming appointments and recent prescriptions
+const patientHome = getPatientHome(localStorage.getItem("token"));
 
 document.addEventListener("DOMContentLoaded", () => {
   loadDoctorCards();
 });
 
+async function bookWithDoctor(e, doctor) {
+  const home = await patientHome;
+  if (!home) {
+    alert("❌ Unable to load your details. Please log in again.");
+    return;
+  }
+  showBookingOverlay(e, doctor, home.patient);
+}
+
 function loadDoctorCards() {
   getDoctors()
     .then(doctors => {
@@ -16,7 +28,7 @@ function loadDoctorCards() {
       contentDiv.innerHTML = "";
 
       doctors.forEach(doctor => {
-        const card = createDoctorCard(doctor);
+        const card = createDoctorCard(doctor, bookWithDoctor);
         contentDiv.appendChild(card);
       });
     })
@@ -112,7 +124,7 @@ function filterDoctorsOnChange() {
       if (doctors.length > 0) {
         console.log(doctors);
         doctors.forEach(doctor => {
-          const card = createDoctorCard(doctor);
+          const card = createDoctorCard(doctor, bookWithDoctor);
           contentDiv.appendChild(card);
         });
       } else {
@@ -131,7 +143,7 @@ export function renderDoctorCards(doctors) {
   contentDiv.innerHTML = "";
 
   doctors.forEach(doctor => {
-    const card = createDoctorCard(doctor);
+    const card = createDoctorCard(doctor, bookWithDoctor);
     contentDiv.appendChild(card);
   });
 
@@ -1,35 +1,78 @@
 // patientAppointment.js
-import { getPatientAppointments, getPatientData, filterAppointments } from "./services/patientServices.js";
+import { getPatientHome, filterAppointments } from "./services/patientServices.js";
 
 const tableBody = document.getElementById("patientTableBody");
+const loadMoreBtn = document.getElementById("loadMoreAppointments");
 const token = localStorage.getItem("token");
 
-let allAppointments = [];
-let filteredAppointments = [];
 let patientId = null;
+// The list on screen is served a page at a time: fetchPage(cursor) returns { appointments, nextCursor }
+let fetchPage = null;
+let nextCursor = null;
+// Bumped whenever another list is shown, so responses for the previous one are dropped
+let listVersion = 0;
 
 document.addEventListener("DOMContentLoaded", initializePage);
+loadMoreBtn.addEventListener("click", loadMoreAppointments);
 
 async function initializePage() {
   try {
     if (!token) throw new Error("No token found");
 
-    const patient = await getPatientData(token);
-    if (!patient) throw new Error("Failed to fetch patient details");
+    // The patient and the first page of their upcoming appointments come in one request;
+    // the following pages, and any other filter, come from the filter endpoint
+    const home = await getPatientHome(token);
+    if (!home) throw new Error("Failed to fetch patient details");
 
-    patientId = Number(patient.id);
+    patientId = Number(home.patient.id);
 
-    const appointmentData = await getPatientAppointments(patientId, token, "patient") || [];
-    allAppointments = appointmentData.filter(app => app.patientId === patientId);
-
-    renderAppointments(allAppointments);
+    await showAppointments(cursor => filterAppointments("future", null, token, cursor), home);
   } catch (error) {
     console.error("Error loading appointments:", error);
     alert("❌ Failed to load your appointments.");
   }
 }
 
-function renderAppointments(appointments) {
+// Replaces the table with the first page of a list (fetched unless given); "Load more" then appends the following pages
+async function showAppointments(fetcher, firstPage = null) {
+  const version = ++listVersion;
+  fetchPage = fetcher;
+  const page = firstPage || await fetcher(null);
+  if (version !== listVersion) return;
+
+  nextCursor = page?.nextCursor || null;
+  renderAppointments(ownAppointments(page), false);
+}
+
+async function loadMoreAppointments() {
+  if (!nextCursor) return;
+  const version = listVersion;
+  loadMoreBtn.disabled = true;
+  try {
+    const page = await fetchPage(nextCursor);
+    if (version !== listVersion) return;
+
+    nextCursor = page?.nextCursor || null;
+    renderAppointments(ownAppointments(page), true);
+  } catch (error) {
+    console.error("Error loading more appointments:", error);
+    alert("❌ Failed to load more appointments.");
+  } finally {
+    loadMoreBtn.disabled = false;
+  }
+}
+
+function ownAppointments(page) {
+  return (page?.appointments || []).filter(app => app.patientId === patientId);
+}
+
+function renderAppointments(appointments, append) {
+  loadMoreBtn.style.display = nextCursor ? "block" : "none";
+  if (append) {
+    appointments.forEach(appointment => tableBody.appendChild(createAppointmentRow(appointment)));
+    return;
+  }
+
   tableBody.innerHTML = "";
 
   const actionTh = document.querySelector("#patientTable thead tr th:last-child");
@@ -42,23 +85,25 @@ function renderAppointments(appointments) {
     return;
   }
 
-  appointments.forEach(appointment => {
-    const tr = document.createElement("tr");
-    tr.innerHTML = `
-      <td>${appointment.patientName || "You"}</td>
-      <td>${appointment.doctorName}</td>
-      <td>${appointment.appointmentDate}</td>
-      <td>${appointment.appointmentTimeOnly}</td>
-      <td>${appointment.status == 0 ? `<img src="../assets/images/edit/edit.png" alt="Edit" class="prescription-btn" data-id="${appointment.patientId}">` : "-"}</td>
-    `;
-
-    if (appointment.status == 0) {
-      const actionBtn = tr.querySelector(".prescription-btn");
-      actionBtn?.addEventListener("click", () => redirectToUpdatePage(appointment));
-    }
-
-    tableBody.appendChild(tr);
-  });
+  appointments.forEach(appointment => tableBody.appendChild(createAppointmentRow(appointment)));
+}
+
+function createAppointmentRow(appointment) {
+  const tr = document.createElement("tr");
+  tr.innerHTML = `
+    <td>${appointment.patientName || "You"}</td>
+    <td>${appointment.doctorName}</td>
+    <td>${appointment.appointmentDate}</td>
+    <td>${appointment.appointmentTimeOnly}</td>
+    <td>${appointment.status == 0 ? `<img src="../assets/images/edit/edit.png" alt="Edit" class="prescription-btn" data-id="${appointment.patientId}">` : "-"}</td>
+  `;
+
+  if (appointment.status == 0) {
+    const actionBtn = tr.querySelector(".prescription-btn");
+    actionBtn?.addEventListener("click", () => redirectToUpdatePage(appointment));
+  }
+
+  return tr;
 }
 
 function redirectToUpdatePage(appointment) {
@@ -92,11 +137,7 @@ async function handleFilterChange() {
   const condition = filterValue === "allAppointments" ? null : filterValue || null;
 
   try {
-    const response = await filterAppointments(condition, name, token);
-    const appointments = response?.appointments || [];
-    filteredAppointments = appointments.filter(app => app.patientId === patientId);
-
-    renderAppointments(filteredAppointments);
+    await showAppointments(cursor => filterAppointments(condition, name, token, cursor));
   } catch (error) {
     console.error("Failed to filter appointments:", error);
     alert("❌ An error occurred while filtering appointments.");
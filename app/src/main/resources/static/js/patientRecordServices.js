@@ -15,7 +15,15 @@ async function initializePage() {
   try {
     if (!token) throw new Error("No token found");
 
-    const appointmentData = await getPatientAppointments(patientId, token, "doctor") || [];
+    // The history is paged; the record lists all of it, so every page is fetched
+    const appointmentData = [];
+    let cursor = null;
+    do {
+      const page = await getPatientAppointments(patientId, token, cursor);
+      if (!page) break;
+      appointmentData.push(...page.appointments);
+      cursor = page.nextCursor;
+    } while (cursor);
 
     // Filter by both patientId and doctorId
     const filteredAppointments = appointmentData.filter(app =>
@@ -54,14 +54,28 @@ export async function getPatientData(token) {
   }
 }
 
-// the Backend API for fetching the patient record(visible in Doctor Dashboard) and Appointments (visible in Patient Dashboard) are same based on user(patient/doctor).
-export async function getPatientAppointments(id, token, user) {
+// Everything the patient pages need after login, in one request:
+// { patient, appointments (upcoming, soonest first), nextCursor (of the "future" filter), prescriptions (recent) }
+export async function getPatientHome(token) {
   try {
-    const response = await fetch(`${PATIENT_API}/${id}/${user}/${token}`);
+    const response = await fetch(`${PATIENT_API}/home/${token}`);
+    const data = await response.json();
+    if (response.ok) return data;
+    return null;
+  } catch (error) {
+    console.error("Error fetching patient home:", error);
+    return null;
+  }
+}
+
+// One page of a patient's appointments, oldest first: { appointments, nextCursor }.
+// Pass nextCursor back to get the following page; it is null on the last one.
+export async function getPatientAppointments(id, token, cursor = null) {
+  try {
+    const response = await fetch(`${PATIENT_API}/${id}/${token}${cursorQuery(cursor)}`);
     const data = await response.json();
-    console.log(data.appointments)
     if (response.ok) {
-      return data.appointments;
+      return { appointments: data.appointments, nextCursor: data.nextCursor };
     }
     return null;
   }
@@ -71,9 +85,10 @@ export async function getPatientAppointments(id, token, user) {
   }
 }
 
-export async function filterAppointments(condition, name, token) {
+// One page of the patient's appointments matching the filters, paged like getPatientAppointments
+export async function filterAppointments(condition, name, token, cursor = null) {
   try {
-    const response = await fetch(`${PATIENT_API}/filter/${condition}/${name}/${token}`, {
+    const response = await fetch(`${PATIENT_API}/filter/${condition}/${name}/${token}${cursorQuery(cursor)}`, {
       method: "GET",
       headers: {
         "Content-Type": "application/json",
@@ -86,12 +101,16 @@ export async function filterAppointments(condition, name, token) {
 
     } else {
       console.error("Failed to fetch doctors:", response.statusText);
-      return { appointments: [] };
+      return { appointments: [], nextCursor: null };
 
     }
   } catch (error) {
     console.error("Error:", error);
     alert("Something went wrong!");
-    return { appointments: [] };
+    return { appointments: [], nextCursor: null };
   }
 }
+
+function cursorQuery(cursor) {
+  return cursor ? `?cursor=${encodeURIComponent(cursor)}` : "";
+}
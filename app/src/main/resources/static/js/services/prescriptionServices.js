@@ -44,3 +44,26 @@ export async function getPrescription(appointmentId, token) {
     throw error;
   }
 }
+
+// Fetches the prescriptions of many appointments in one request.
+// Resolves to { prescriptions: [...], missing: [appointmentId, ...] }
+export async function getPrescriptions(appointmentIds, token) {
+  try {
+    const query = new URLSearchParams({ appointmentIds: appointmentIds.join(",") });
+    const response = await fetch(`${PRESCRITION_API}/batch/${token}?${query}`, {
+      method: "GET",
+      headers: {
+        "Content-Type": "application/json"
+      }
+    });
+
+    const result = await response.json();
+    if (!response.ok) {
+      throw new Error(result.message || result.error || "Unable to fetch prescriptions");
+    }
+    return result;
+  } catch (error) {
+    console.error("Error :: getPrescriptions ::", error);
+    throw error;
+  }
+}
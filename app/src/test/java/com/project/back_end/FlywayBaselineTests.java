@@ -0,0 +1,51 @@
+package com.project.back_end;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A database created by ddl-auto=update before the migrations existed: the application baselines it at V1, applies
+// the later migrations and then starts, which it only does if Hibernate's ddl-auto=validate accepts the result
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+class FlywayBaselineTests {
+
+    private static final String URL = "jdbc:h2:mem:pre-flyway;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @DynamicPropertySource
+    static void preFlywayDatabase(DynamicPropertyRegistry registry) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre-flyway-schema.sql"))
+                .execute(new DriverManagerDataSource(URL, "sa", ""));
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void preFlywayDatabaseIsBaselinedAndMigrated() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertThat(applied[0].getState()).isEqualTo(MigrationState.BASELINE);
+        assertThat(applied[0].getVersion().getVersion()).isEqualTo("1");
+        assertThat(Arrays.stream(applied).skip(1).map(migration -> migration.getVersion().getVersion()))
+                .containsExactly("1.1", "2", "3");
+        assertThat(jdbc.queryForList("SELECT index_name FROM information_schema.indexes WHERE table_name = 'appointment'",
+                String.class))
+                .contains("idx_appointment_doctor_time", "idx_appointment_status_time", "idx_appointment_patient_time");
+    }
+}
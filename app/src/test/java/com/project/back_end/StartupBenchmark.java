@@ -0,0 +1,130 @@
+package com.project.back_end;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Time from launching the JVM to the first successful GET /doctor, for the packaged application started plainly,
+// with the startup profile (deferred JPA bootstrap), with its AOT-generated bean definitions, and with those plus
+// the class data sharing archive. Each run starts a fresh JVM on an in-memory H2 database (with the Flyway migrations).
+// Opt-in, and needs the startup build first:
+//   mvn clean -Pstartup -DskipTests package && mvn test -Dtest=StartupBenchmark -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupBenchmark {
+
+    private static final int RUNS = 3;
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final Path STARTUP_DIR = Path.of("target", "startup");
+    private static final Path APPLICATION_JAR = STARTUP_DIR.resolve("back-end-0.0.1-SNAPSHOT.jar");
+    private static final Path CDS_ARCHIVE = STARTUP_DIR.resolve("application.jsa");
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+        assumeTrue(Files.exists(APPLICATION_JAR) && Files.exists(CDS_ARCHIVE), "Build with mvn -Pstartup package first");
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("plain", List.of());
+        modes.put("startup profile", List.of("--spring.profiles.active=startup"));
+        modes.put("+ AOT", List.of("-Dspring.aot.enabled=true", "--spring.profiles.active=startup"));
+        modes.put("+ AOT + CDS", List.of("-XX:SharedArchiveFile=" + CDS_ARCHIVE.getFileName(),
+                "-Dspring.aot.enabled=true", "--spring.profiles.active=startup"));
+
+        // Modes are interleaved, so a noisy machine does not favour one of them
+        Map<String, List<Long>> millis = new LinkedHashMap<>();
+        for (int run = 0; run < RUNS; run++) {
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                millis.computeIfAbsent(mode.getKey(), key -> new ArrayList<>()).add(timeToFirstRequest(mode.getValue()));
+            }
+        }
+
+        long plain = median(millis.get("plain"));
+        System.out.printf("%n%-18s %22s %10s%n", "mode", "first request (ms)", "vs plain");
+        millis.forEach((mode, times) -> System.out.printf("%-18s %22d %9.1f%%%n",
+                mode, median(times), 100.0 * median(times) / plain));
+
+        assertThat(millis).hasSize(modes.size());
+    }
+
+    // JVM options start with -, everything else is passed to the application
+    private long timeToFirstRequest(List<String> options) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        options.stream().filter(option -> !option.startsWith("--")).forEach(command::add);
+        // The extracted jar names its dependencies in its manifest; H2 stands in for MySQL, after them so the
+        // class path still starts with the one the CDS archive was created for
+        command.add("-cp");
+        command.add(APPLICATION_JAR.getFileName() + System.getProperty("path.separator") + h2Jar());
+        command.add(BackEndApplication.class.getName());
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.datasource.password=");
+        command.add("--spring.data.mongodb.uri=mongodb://localhost/prescriptions");
+        command.add("--spring.data.mongodb.auto-index-creation=false");
+        options.stream().filter(option -> option.startsWith("--")).forEach(command::add);
+
+        Path log = Files.createTempFile("startup-benchmark", ".log");
+        long start = System.nanoTime();
+        Process application = new ProcessBuilder(command)
+                .directory(STARTUP_DIR.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            HttpRequest doctors = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/doctor"))
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+            while (System.nanoTime() - start < START_TIMEOUT.toNanos()) {
+                if (!application.isAlive()) {
+                    throw new IllegalStateException("Application exited while starting:\n" + Files.readString(log));
+                }
+                try {
+                    if (http.send(doctors, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException notListeningYet) {
+                    // Tomcat has not bound the port yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("No response within " + START_TIMEOUT + ":\n" + Files.readString(log));
+        } finally {
+            application.destroy();
+            application.waitFor();
+            Files.deleteIfExists(log);
+        }
+    }
+
+    private static String h2Jar() throws Exception {
+        return Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(List<Long> values) {
+        return values.stream().sorted().toList().get(values.size() / 2);
+    }
+}
@@ -0,0 +1,75 @@
+package com.project.back_end.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentPage;
+import com.project.back_end.models.Doctor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The tuned ObjectMapper writes the same JSON as a stock one
+@SpringBootTest
+class JacksonConfigTests {
+
+    private final ObjectMapper stock = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void fastPathIsRegistered() throws Exception {
+        assertThat(objectMapper.getRegisteredModuleIds()).contains(new BlackbirdModule().getTypeId());
+        assertThat(objectMapper.getSerializerProviderInstance().findValueSerializer(LocalDateTime.class, null))
+                .isInstanceOf(IsoLocalDateTimeSerializer.class);
+    }
+
+    @Test
+    void localDateTimesAreWrittenAsIsoLocalDateTime() throws Exception {
+        for (LocalDateTime time : List.of(
+                LocalDateTime.of(2025, 5, 1, 9, 0),
+                LocalDateTime.of(2025, 12, 31, 23, 59, 59),
+                LocalDateTime.of(5, 1, 2, 3, 4, 5),
+                LocalDateTime.of(2025, 5, 1, 9, 0, 0, 120_000_000),
+                LocalDateTime.of(2025, 5, 1, 9, 0, 0, 1),
+                LocalDateTime.of(10_000, 1, 1, 0, 0),
+                LocalDateTime.of(-1, 1, 1, 0, 0))) {
+            assertThat(objectMapper.writeValueAsString(time)).isEqualTo(stock.writeValueAsString(time));
+        }
+    }
+
+    @Test
+    void responsesKeepTheirShape() throws Exception {
+        List<AppointmentDTO> appointments = List.of(new AppointmentDTO(1L, 2L, "Dr Grace Hopper", 3L, "Ada Lovelace",
+                "ada@clinic.test", "5550000002", "12 Analytical Street", LocalDateTime.of(2025, 5, 1, 9, 0), 0));
+        Map<String, Object> page = new HashMap<>();
+        page.put("appointments", appointments);
+        page.put("nextCursor", null);
+        assertThat(objectMapper.readTree(objectMapper.writeValueAsString(new AppointmentPage(appointments, null))))
+                .isEqualTo(stock.readTree(stock.writeValueAsString(page)));
+
+        Doctor doctor = new Doctor();
+        doctor.setId(2L);
+        doctor.setName("Dr Grace Hopper");
+        doctor.setSpecialty("Cardiology");
+        doctor.setEmail("grace@clinic.test");
+        doctor.setPassword("secret123");
+        doctor.setPhone("5550000001");
+        doctor.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00"));
+        String json = objectMapper.writeValueAsString(doctor);
+        assertThat(objectMapper.readTree(json)).isEqualTo(stock.readTree(stock.writeValueAsString(doctor)));
+        assertThat(json).doesNotContain("secret123");
+    }
+}
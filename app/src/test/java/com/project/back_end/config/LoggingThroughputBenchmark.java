@@ -0,0 +1,188 @@
+package com.project.back_end.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.project.back_end.support.EndpointTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Request throughput of two hot read endpoints with the services' INFO logging off, written synchronously,
+// written through the async appender, and written through the async appender with sampling (as configured in
+// logback-spring.xml). Log lines go to a temporary file with the console pattern.
+// Opt-in, as it takes a while:  mvn test -Dtest=LoggingThroughputBenchmark -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoggingThroughputBenchmark extends EndpointTestSupport {
+
+    private static final int THREADS = 4;
+    private static final int WARMUP = 20_000;
+    private static final int ROUNDS = 3;
+    private static final int REQUESTS_PER_THREAD = 2_000;
+    private static final int SAMPLE_RATE = 100;
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n%wEx";
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    private final Logger services = context.getLogger("com.project.back_end.services");
+    private final List<TurboFilter> configuredFilters = new ArrayList<>(context.getTurboFilterList());
+
+    @AfterEach
+    void restoreLogging() {
+        services.detachAndStopAllAppenders();
+        services.setAdditive(true);
+        services.setLevel(null);
+        context.resetTurboFilterList();
+        configuredFilters.forEach(context::addTurboFilter);
+    }
+
+    @Test
+    void requestThroughputWithLoggingOnAndOff() throws Exception {
+        Path logFile = Files.createTempFile("logging-benchmark", ".log");
+        Map<String, List<Double>> throughput = new LinkedHashMap<>();
+        try {
+            context.resetTurboFilterList();
+            services.setAdditive(false);
+            services.setLevel(Level.WARN);
+            String doctorToken = doctorToken();
+            String patientToken = patientToken();
+            for (int i = 0; i < WARMUP; i++) {
+                request(i, doctorToken, patientToken);
+            }
+
+            // Modes are interleaved, so JIT and cache warm-up do not favour whichever runs last
+            for (int round = 0; round < ROUNDS; round++) {
+                logTo(null, false, false);
+                throughput.computeIfAbsent("off", mode -> new ArrayList<>()).add(measure());
+
+                logTo(logFile, false, false);
+                throughput.computeIfAbsent("sync", mode -> new ArrayList<>()).add(measure());
+
+                logTo(logFile, true, false);
+                throughput.computeIfAbsent("async", mode -> new ArrayList<>()).add(measure());
+
+                logTo(logFile, true, true);
+                throughput.computeIfAbsent("async + sampled 1/" + SAMPLE_RATE, mode -> new ArrayList<>()).add(measure());
+            }
+        } finally {
+            services.detachAndStopAllAppenders();
+            Files.deleteIfExists(logFile);
+        }
+
+        double off = median(throughput.get("off"));
+        System.out.printf("%n%-28s %14s %10s%n", "services INFO logging", "requests/s", "vs off");
+        throughput.forEach((mode, rates) -> System.out.printf("%-28s %14.0f %9.1f%%%n",
+                mode, median(rates), 100 * median(rates) / off));
+
+        assertThat(throughput).hasSize(4);
+    }
+
+    // A null file turns the services' INFO logging off
+    private void logTo(Path file, boolean async, boolean sampled) {
+        services.detachAndStopAllAppenders();
+        context.resetTurboFilterList();
+        if (file == null) {
+            services.setLevel(Level.WARN);
+            return;
+        }
+        services.setLevel(Level.INFO);
+        services.addAppender(async ? async(fileAppender(file)) : fileAppender(file));
+        if (sampled) {
+            context.addTurboFilter(sampling());
+        }
+    }
+
+    private static double median(List<Double> values) {
+        return values.stream().sorted().toList().get(values.size() / 2);
+    }
+
+    // Requests per second over THREADS threads, alternating the doctor's day view and a doctor's availability
+    private double measure() throws Exception {
+        String doctorToken = doctorToken();
+        String patientToken = patientToken();
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                done.add(threads.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        request(i, doctorToken, patientToken);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+            return THREADS * REQUESTS_PER_THREAD / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    private void request(int i, String doctorToken, String patientToken) throws Exception {
+        int status = i % 2 == 0
+                ? mockMvc.perform(get("/appointments/{date}/{patientName}/{token}", APPOINTMENT_DATE, "null", doctorToken))
+                .andReturn().getResponse().getStatus()
+                : mockMvc.perform(get("/doctor/availability/{user}/{doctorId}/{date}/{token}",
+                        "patient", doctor.getId(), APPOINTMENT_DATE, patientToken))
+                .andReturn().getResponse().getStatus();
+        assertThat(status).isEqualTo(200);
+    }
+
+    private FileAppender<ILoggingEvent> fileAppender(Path file) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(file.toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private AsyncAppender async(Appender<ILoggingEvent> delegate) {
+        AsyncAppender appender = new AsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(8192);
+        appender.setNeverBlock(true);
+        appender.setIncludeCallerData(false);
+        appender.addAppender(delegate);
+        appender.start();
+        return appender;
+    }
+
+    private LogSamplingFilter sampling() {
+        LogSamplingFilter filter = new LogSamplingFilter();
+        filter.setContext(context);
+        filter.addCategory("com.project.back_end.services.AppointmentService=" + SAMPLE_RATE);
+        filter.addCategory("com.project.back_end.services.UtilityService=" + SAMPLE_RATE);
+        filter.addCategory("com.project.back_end.services.DoctorService=" + SAMPLE_RATE);
+        filter.start();
+        return filter;
+    }
+}
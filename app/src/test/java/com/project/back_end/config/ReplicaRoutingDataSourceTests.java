@@ -0,0 +1,80 @@
+package com.project.back_end.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTests {
+
+    private final AtomicBoolean replicaUsable = new AtomicBoolean(true);
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate reads;
+    private TransactionTemplate writes;
+
+    @BeforeEach
+    void setUp() {
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                database("primary"), database("replica"), replicaUsable::get));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        jdbc = new JdbcTemplate(routing);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+        writes = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRouting.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertThat(databaseIn(reads)).isEqualToIgnoringCase("replica");
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        assertThat(databaseIn(writes)).isEqualToIgnoringCase("primary");
+    }
+
+    @Test
+    void forcedPrimaryOverridesReadOnly() {
+        ReplicaRouting.forcePrimary();
+        assertThat(databaseIn(reads)).isEqualToIgnoringCase("primary");
+    }
+
+    @Test
+    void forcedPrimaryFollowsDecoratedTasks() throws InterruptedException {
+        ReplicaRouting.forcePrimary();
+        String[] database = new String[1];
+        Thread worker = new Thread(ReplicaRouting.propagate(() -> database[0] = databaseIn(reads)));
+        worker.start();
+        worker.join();
+        assertThat(database[0]).isEqualToIgnoringCase("primary");
+    }
+
+    @Test
+    void unusableReplicaSendsReadsToThePrimary() {
+        replicaUsable.set(false);
+        assertThat(databaseIn(reads)).isEqualToIgnoringCase("primary");
+    }
+
+    private String databaseIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbc.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
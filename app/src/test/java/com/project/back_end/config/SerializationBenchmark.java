@@ -0,0 +1,142 @@
+package com.project.back_end.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.project.back_end.DTO.AppointmentCursor;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentPage;
+import com.project.back_end.models.Doctor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Serialization cost of the two largest JSON responses, a page of a patient's appointments and the list of doctors,
+// with Spring Boot's stock ObjectMapper (the page as a HashMap, as it used to be) and with JacksonConfig's tuned one
+// (the page as an AppointmentPage). Sizes are the default and the maximum page size; the doctor list uses the same
+// counts. Responses are streamed to a discarding OutputStream, as the message converter streams them to the client.
+// Opt-in, as it takes a few minutes:  mvn test -Dtest=SerializationBenchmark -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializationBenchmark {
+
+    private static final LocalDateTime FIRST_APPOINTMENT = LocalDateTime.of(2025, 5, 1, 9, 0);
+
+    @Param({"20", "100"})
+    public int size;
+
+    private ObjectMapper stock;
+    private ObjectMapper tuned;
+    private Map<String, Object> appointmentMap;
+    private AppointmentPage appointmentPage;
+    private List<Doctor> doctors;
+
+    @Setup
+    public void setUp() {
+        stock = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new BlackbirdModule());
+        new JacksonConfig(new MockEnvironment()).serializationFastPath().customize(builder);
+        tuned = builder.build();
+
+        List<AppointmentDTO> appointments = new ArrayList<>();
+        doctors = new ArrayList<>();
+        for (long i = 1; i <= size; i++) {
+            appointments.add(new AppointmentDTO(i, 100 + i % 7, "Dr Grace Hopper " + i % 7, 42L, "Ada Lovelace",
+                    "ada.lovelace@clinic.test", "5550000002", "12 Analytical Street, London",
+                    FIRST_APPOINTMENT.plusDays(i / 8).plusHours(i % 8), i % 3 == 0 ? 1 : 0));
+            Doctor doctor = new Doctor();
+            doctor.setId(i);
+            doctor.setName("Dr Doctor Number " + i);
+            doctor.setSpecialty(i % 2 == 0 ? "Cardiology" : "Dermatology");
+            doctor.setEmail("doctor" + i + "@clinic.test");
+            doctor.setPassword("secret123");
+            doctor.setPhone("55500" + (10000 + i));
+            doctor.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00", "11:00-12:00", "14:00-15:00",
+                    "15:00-16:00", "16:00-17:00"));
+            doctors.add(doctor);
+        }
+        String nextCursor = AppointmentCursor.after(appointments.get(appointments.size() - 1)).encode();
+        appointmentMap = new HashMap<>();
+        appointmentMap.put("appointments", appointments);
+        appointmentMap.put("nextCursor", nextCursor);
+        appointmentPage = new AppointmentPage(appointments, nextCursor);
+    }
+
+    @Benchmark
+    public void appointmentPageStock() throws IOException {
+        stock.writeValue(OutputStream.nullOutputStream(), appointmentMap);
+    }
+
+    @Benchmark
+    public void appointmentPageTuned() throws IOException {
+        tuned.writeValue(OutputStream.nullOutputStream(), appointmentPage);
+    }
+
+    @Benchmark
+    public void doctorListStock() throws IOException {
+        stock.writeValue(OutputStream.nullOutputStream(), doctors);
+    }
+
+    @Benchmark
+    public void doctorListTuned() throws IOException {
+        tuned.writeValue(OutputStream.nullOutputStream(), doctors);
+    }
+
+    @Test
+    void stockAgainstTunedSerialization() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(SerializationBenchmark.class.getName() + "\\.")
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+
+        System.out.printf("%n%-22s %6s %16s %14s%n", "benchmark", "size", "responses/ms", "bytes/response");
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            double allocated = result.getSecondaryResults().entrySet().stream()
+                    .filter(entry -> entry.getKey().endsWith("gc.alloc.rate.norm"))
+                    .mapToDouble(entry -> entry.getValue().getScore())
+                    .findFirst().orElse(Double.NaN);
+            System.out.printf("%-22s %6s %16.1f %14.0f%n", benchmark.substring(benchmark.lastIndexOf('.') + 1),
+                    result.getParams().getParam("size"), result.getPrimaryResult().getScore(), allocated);
+        }
+
+        assertThat(results).hasSize(8);
+    }
+}
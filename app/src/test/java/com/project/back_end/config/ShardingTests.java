@@ -0,0 +1,231 @@
+package com.project.back_end.config;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Three in-memory H2 shards: appointments are written to their doctor's shard and read back from all of them
+@SpringBootTest(properties = {
+        "datasource.sharding.enabled=true",
+        "spring.datasource.url=" + ShardingTests.SHARD_0,
+        "spring.datasource.hikari.maximum-pool-size=7",
+        "spring.datasource.hikari.connection-timeout=4000",
+        "datasource.sharding.shards[0].url=" + ShardingTests.SHARD_1,
+        "datasource.sharding.shards[0].username=sa",
+        "datasource.sharding.shards[0].password=",
+        "datasource.sharding.shards[1].url=" + ShardingTests.SHARD_2,
+        "datasource.sharding.shards[1].username=sa",
+        "datasource.sharding.shards[1].password="
+})
+@AutoConfigureMockMvc
+class ShardingTests {
+
+    static final String SHARD_0 = "jdbc:h2:mem:shard0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1 = "jdbc:h2:mem:shard1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String SHARD_2 = "jdbc:h2:mem:shard2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final LocalDate DATE = LocalDate.now().plusWeeks(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private AppointmentShards shards;
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    private Patient patient;
+    private Doctor first;
+    private Doctor second;
+
+    @BeforeEach
+    void createFixtures() {
+        for (int shard = 0; shard < shardDataSources.count(); shard++) {
+            jdbc(shard).update("DELETE FROM appointment");
+            jdbc(shard).update("DELETE FROM archived_appointment");
+        }
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+
+        Patient newPatient = new Patient();
+        newPatient.setName("Ada Lovelace");
+        newPatient.setEmail("ada@clinic.test");
+        newPatient.setPassword("secret123");
+        newPatient.setPhone("5550000002");
+        newPatient.setAddress("12 Analytical Street");
+        patient = patientRepository.save(newPatient);
+
+        // Doctors are added until two of them live on different shards
+        first = doctor(0);
+        second = doctor(1);
+        for (int n = 2; shards.shardOfDoctor(second.getId()) == shards.shardOfDoctor(first.getId()); n++) {
+            second = doctor(n);
+        }
+    }
+
+    @Test
+    void shardZeroUsesTheDataSourcePoolSettings() {
+        assertThat(shardDataSources.all().get(0).getMaximumPoolSize()).isEqualTo(7);
+        assertThat(shardDataSources.all().get(0).getConnectionTimeout()).isEqualTo(4000);
+        assertThat(shardDataSources.all().get(0).getPoolName()).isEqualTo("shard-0");
+        assertThat(shardDataSources.all().get(1).getMaximumPoolSize()).isEqualTo(10);
+    }
+
+    @Test
+    void referenceRowsAreCopiedToEveryShard() {
+        for (int shard = 0; shard < shardDataSources.count(); shard++) {
+            assertThat(jdbc(shard).queryForObject("SELECT email FROM doctor WHERE id = ?", String.class, first.getId()))
+                    .isEqualTo(first.getEmail());
+            assertThat(jdbc(shard).queryForObject("SELECT COUNT(*) FROM doctor_available_times WHERE doctor_id = ?",
+                    Integer.class, first.getId())).isEqualTo(3);
+            assertThat(jdbc(shard).queryForObject("SELECT COUNT(*) FROM patient WHERE id = ?", Integer.class,
+                    patient.getId())).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void appointmentsAreBookedOnTheirDoctorsShardWithAnIdNamingIt() throws Exception {
+        book(first, "10:00");
+        book(second, "10:00");
+
+        for (Doctor doctor : List.of(first, second)) {
+            int shard = shards.shardOfDoctor(doctor.getId());
+            List<Long> ids = jdbc(shard).queryForList("SELECT id FROM appointment WHERE doctor_id = ?", Long.class, doctor.getId());
+            assertThat(ids).hasSize(1);
+            assertThat(shards.shardOfAppointment(ids.get(0))).isEqualTo(shard);
+        }
+        assertThat(countOnAllShards()).isEqualTo(2);
+    }
+
+    @Test
+    void availabilityIsReadFromTheDoctorsShard() throws Exception {
+        book(first, "10:00");
+
+        String slots = mockMvc.perform(get("/doctor/availability/{user}/{doctorId}/{date}/{token}",
+                        "patient", first.getId(), DATE, token(patient.getEmail())))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(slots).isEqualTo("[\"09:00-10:00\",\"11:00-12:00\"]");
+    }
+
+    @Test
+    void patientHistoryMergesEveryShardByTime() throws Exception {
+        book(first, "11:00");
+        book(second, "10:00");
+        book(first, "09:00");
+
+        String firstPage = perform(get("/patient/{id}/{token}", patient.getId(), token(patient.getEmail()))
+                        .param("size", "2"))
+                .getResponse().getContentAsString();
+        String secondPage = perform(get("/patient/{id}/{token}", patient.getId(), token(patient.getEmail()))
+                        .param("size", "2").param("cursor", JsonPath.<String>read(firstPage, "$.nextCursor")))
+                .getResponse().getContentAsString();
+
+        assertThat(JsonPath.<List<Integer>>read(firstPage, "$.appointments[*].doctorId"))
+                .containsExactly(first.getId().intValue(), second.getId().intValue());
+        assertThat(JsonPath.<List<Integer>>read(secondPage, "$.appointments[*].doctorId"))
+                .containsExactly(first.getId().intValue());
+        assertThat(JsonPath.<String>read(secondPage, "$.nextCursor")).isNull();
+    }
+
+    @Test
+    void appointmentsAreCancelledOnTheShardTheirIdNames() throws Exception {
+        book(first, "10:00");
+        book(second, "10:00");
+        Long id = jdbc(shards.shardOfDoctor(second.getId()))
+                .queryForObject("SELECT id FROM appointment WHERE doctor_id = ?", Long.class, second.getId());
+
+        int status = mockMvc.perform(delete("/appointments/{id}/{token}", id, token(patient.getEmail())))
+                .andReturn().getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+        assertThat(countOnAllShards()).isEqualTo(1);
+    }
+
+    @Test
+    void addingAShardOnlyMovesDoctorsToTheNewShard() {
+        int moved = 0;
+        for (long doctorId = 1; doctorId <= 10_000; doctorId++) {
+            int before = AppointmentShards.jumpConsistentHash(doctorId, 3);
+            int after = AppointmentShards.jumpConsistentHash(doctorId, 4);
+            if (before != after) {
+                assertThat(after).isEqualTo(3);
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(2_200, 2_800);
+    }
+
+    private Doctor doctor(int n) {
+        Doctor doctor = new Doctor();
+        doctor.setName("Dr Shard " + n);
+        doctor.setSpecialty("Cardiology");
+        doctor.setEmail("doctor" + n + "@clinic.test");
+        doctor.setPassword("secret123");
+        doctor.setPhone(String.format("555%07d", n));
+        doctor.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00", "11:00-12:00"));
+        return doctorRepository.save(doctor);
+    }
+
+    private void book(Doctor doctor, String time) throws Exception {
+        String body = """
+                {"doctor": {"id": %d}, "patient": {"id": %d}, "appointmentTime": "%sT%s:00", "status": 0}
+                """.formatted(doctor.getId(), patient.getId(), DATE, time);
+        int status = mockMvc.perform(post("/appointments/{token}", token(patient.getEmail()))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn().getResponse().getStatus();
+        assertThat(status).isEqualTo(201);
+    }
+
+    private int countOnAllShards() {
+        int count = 0;
+        for (int shard = 0; shard < shardDataSources.count(); shard++) {
+            count += jdbc(shard).queryForObject("SELECT COUNT(*) FROM appointment", Integer.class);
+        }
+        return count;
+    }
+
+    // Completes async handlers (the patient endpoints run on the MySQL executor)
+    private MvcResult perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result;
+    }
+
+    private String token(String email) {
+        return tokenService.generateToken(email);
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(shardDataSources.get(shard));
+    }
+}
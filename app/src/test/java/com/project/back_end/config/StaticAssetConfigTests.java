@@ -0,0 +1,84 @@
+package com.project.back_end.config;
+
+import org.apache.catalina.Globals;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// The static front end served from disk, as in the Docker image
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "spring.web.resources.static-locations=file:target/classes/static/")
+class StaticAssetConfigTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private StaticAssetConfig staticAssets;
+
+    @Test
+    void pagesLinkToFingerprintedAssetsAndAreRevalidated() throws Exception {
+        String prefix = staticAssets.versionPrefix();
+        MockHttpServletResponse page = mockMvc.perform(get("/pages/patientDashboard.html")).andReturn().getResponse();
+
+        assertThat(page.getStatus()).isEqualTo(200);
+        assertThat(page.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+        assertThat(page.getContentAsString())
+                .contains("src=\"" + prefix + "/js/render.js\"")
+                .contains("href=\"" + prefix + "/assets/css/style.css\"")
+                .doesNotContain("src=\"../js/render.js\"");
+        assertThat(mockMvc.perform(get("/pages/patientDashboard.html")
+                        .header(HttpHeaders.IF_NONE_MATCH, page.getHeader(HttpHeaders.ETAG)))
+                .andReturn().getResponse().getStatus()).isEqualTo(304);
+
+        // ".." above the root stays at the root
+        assertThat(mockMvc.perform(get("/index.html")).andReturn().getResponse().getContentAsString())
+                .contains("src=\"" + prefix + "/js/util.js\"")
+                .contains("src=\"" + prefix + "/js/services/index.js\"");
+    }
+
+    @Test
+    void fingerprintedAssetsAreImmutableAndPrecompressed() throws Exception {
+        MockHttpServletResponse script = mockMvc.perform(get(staticAssets.versionPrefix() + "/js/patientDashboard.js")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andReturn().getResponse();
+
+        assertThat(script.getStatus()).isEqualTo(200);
+        assertThat(script.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=31536000, public, immutable");
+        assertThat(mockMvc.perform(get("/js/patientDashboard.js")).andReturn().getResponse()
+                .getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+
+        assumeTrue(Files.exists(Path.of("target/classes/static/js/patientDashboard.js.gz")), "Built without gzip");
+        assertThat(script.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+    @Test
+    void largeFilesGoOutWithSendfile() throws Exception {
+        String images = staticAssets.versionPrefix() + "/assets/images/";
+        MvcResult large = mockMvc.perform(get(images + "defineRole/index.png")
+                .requestAttr(Globals.SENDFILE_SUPPORTED_ATTR, true)).andReturn();
+
+        assertThat((String) large.getRequest().getAttribute(Globals.SENDFILE_FILENAME_ATTR)).endsWith("index.png");
+        assertThat(large.getRequest().getAttribute(Globals.SENDFILE_FILE_END_ATTR))
+                .isEqualTo(Files.size(Path.of("target/classes/static/assets/images/defineRole/index.png")));
+        assertThat(large.getResponse().getContentAsByteArray()).isEmpty();
+
+        // Below static-assets.sendfile-min-size
+        MvcResult small = mockMvc.perform(get(images + "edit/edit.png")
+                .requestAttr(Globals.SENDFILE_SUPPORTED_ATTR, true)).andReturn();
+        assertThat(small.getRequest().getAttribute(Globals.SENDFILE_FILENAME_ATTR)).isNull();
+        assertThat(small.getResponse().getContentAsByteArray()).isNotEmpty();
+    }
+}
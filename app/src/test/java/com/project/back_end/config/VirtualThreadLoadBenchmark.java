@@ -0,0 +1,225 @@
+package com.project.back_end.config;
+
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+import com.project.back_end.services.TokenService;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Throughput and latency of three read endpoints under many concurrent clients, with requests handled by Tomcat's
+// platform-thread pool and by virtual threads (the virtual-threads profile). Every SQL statement is delayed by
+// SQL_LATENCY, as a MySQL round trip would be, and both modes get the same MAX_CONNECTIONS MySQL connections.
+// The application runs in-process on a random port, once per mode and round (rounds alternate the mode order).
+// The load only reaches the thread limits with enough cores to spare for it; on a small machine both modes are CPU-bound.
+// Opt-in, as it takes a while:  mvn test -Dtest=VirtualThreadLoadBenchmark -Dbenchmark=true
+//   [-Dclients=400 -DsqlLatencyMillis=5 -Dconnections=50]
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("clients", 400);
+    private static final int MAX_CONNECTIONS = Integer.getInteger("connections", 50);
+    private static final Duration SQL_LATENCY = Duration.ofMillis(Integer.getInteger("sqlLatencyMillis", 5));
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+    private static final int ROUNDS = 2;
+    private static final LocalDate DATE = LocalDate.now().plusWeeks(1);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void platformThreadsAgainstVirtualThreads() throws Exception {
+        Map<String, List<Result>> results = new LinkedHashMap<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Boolean> order = round % 2 == 0 ? List.of(false, true) : List.of(true, false);
+            for (boolean virtualThreads : order) {
+                String mode = virtualThreads ? "virtual threads" : "platform threads";
+                results.computeIfAbsent(mode, key -> new ArrayList<>()).add(run(virtualThreads, round));
+            }
+        }
+
+        System.out.printf("%n%d clients, %d ms per SQL statement, %d MySQL connections%n",
+                CLIENTS, SQL_LATENCY.toMillis(), MAX_CONNECTIONS);
+        System.out.printf("%-18s %12s %10s %10s %8s%n", "mode", "requests/s", "p50 (ms)", "p99 (ms)", "errors");
+        results.forEach((mode, rounds) -> System.out.printf("%-18s %12.0f %10.1f %10.1f %8d%n", mode,
+                rounds.stream().mapToDouble(Result::throughput).average().orElseThrow(),
+                rounds.stream().mapToDouble(Result::p50Millis).average().orElseThrow(),
+                rounds.stream().mapToDouble(Result::p99Millis).average().orElseThrow(),
+                rounds.stream().mapToLong(Result::errors).sum()));
+
+        assertThat(results).hasSize(2);
+    }
+
+    private Result run(boolean virtualThreads, int round) throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(BackEndApplication.class)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new SlowDatabase()));
+        if (virtualThreads) {
+            application.profiles("virtual-threads");
+        }
+        // Arguments, as they take precedence over the test overrides in config/application.properties
+        try (ConfigurableApplicationContext context = application.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + "-" + round
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.maximum-pool-size=" + MAX_CONNECTIONS,
+                "--logging.level.root=WARN")) {
+            List<URI> uris = fixtures(context);
+            load(uris, WARMUP);
+            return load(uris, MEASUREMENT);
+        }
+    }
+
+    // The doctor's day view and a doctor's availability read MySQL on the request thread; the patient home page
+    // reads MySQL and Mongo on the store executors
+    private List<URI> fixtures(ConfigurableApplicationContext context) {
+        Doctor doctor = new Doctor();
+        doctor.setName("Dr Grace Hopper");
+        doctor.setSpecialty("Cardiology");
+        doctor.setEmail("grace@clinic.test");
+        doctor.setPassword("secret123");
+        doctor.setPhone("5550000001");
+        doctor.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00", "11:00-12:00"));
+        doctor = context.getBean(DoctorRepository.class).save(doctor);
+
+        Patient patient = new Patient();
+        patient.setName("Ada Lovelace");
+        patient.setEmail("ada@clinic.test");
+        patient.setPassword("secret123");
+        patient.setPhone("5550000002");
+        patient.setAddress("12 Analytical Street");
+        patient = context.getBean(PatientRepository.class).save(patient);
+
+        Appointment appointment = context.getBean(AppointmentRepository.class)
+                .save(new Appointment(null, doctor, patient, DATE.atTime(9, 0), 0));
+        Prescription prescription = new Prescription(null, patient.getName(), appointment.getId(), "Ibuprofen",
+                "1 tablet daily", null);
+        prescription.setPatientId(patient.getId());
+        prescription.setDoctorId(doctor.getId());
+        prescription.setIssuedAt(LocalDateTime.now());
+        context.getBean(PrescriptionRepository.class).save(prescription);
+
+        TokenService tokenService = context.getBean(TokenService.class);
+        String doctorToken = tokenService.generateToken(doctor.getEmail());
+        String patientToken = tokenService.generateToken(patient.getEmail());
+        String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        return List.of(
+                URI.create(base + "/appointments/" + DATE + "/null/" + doctorToken),
+                URI.create(base + "/doctor/availability/patient/" + doctor.getId() + "/" + DATE + "/" + patientToken),
+                URI.create(base + "/patient/home/" + patientToken));
+    }
+
+    // CLIENTS clients, each sending its next request as soon as the previous one is answered
+    private Result load(List<URI> uris, Duration duration) throws Exception {
+        long end = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> clients = new ArrayList<>();
+        long start = System.nanoTime();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                clients.add(threads.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    for (int i = client; System.nanoTime() < end; i++) {
+                        HttpRequest request = HttpRequest.newBuilder(uris.get(i % uris.size()))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long sent = System.nanoTime();
+                        try {
+                            if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException timedOut) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - sent;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        List<long[]> perClient = new ArrayList<>();
+        for (Future<long[]> client : clients) {
+            perClient.add(client.get());
+        }
+        long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(latencies.length / seconds, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                errors.get());
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)] / 1e6;
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, long errors) {
+    }
+
+    // Added ahead of the stand-in's counting proxy (which then leaves the data source alone)
+    private static final class SlowDatabase implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(new QueryExecutionListener() {
+                    @Override
+                    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                        try {
+                            Thread.sleep(SQL_LATENCY);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+
+                    @Override
+                    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                    }
+                }).build();
+            }
+            return bean;
+        }
+    }
+}
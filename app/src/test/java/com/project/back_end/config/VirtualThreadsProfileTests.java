@@ -0,0 +1,34 @@
+package com.project.back_end.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The virtual-threads profile moves the blocking store calls off the bounded platform-thread pools
+@SpringBootTest
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsProfileTests {
+
+    @Autowired
+    @Qualifier("mysqlExecutor")
+    private AsyncTaskExecutor mysqlExecutor;
+    @Autowired
+    @Qualifier("mongoExecutor")
+    private AsyncTaskExecutor mongoExecutor;
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Test
+    void storeCallsRunOnVirtualThreads() throws Exception {
+        for (AsyncTaskExecutor executor : new AsyncTaskExecutor[] {mysqlExecutor, mongoExecutor, applicationTaskExecutor}) {
+            assertThat(executor.submit(() -> Thread.currentThread().isVirtual()).get()).isTrue();
+        }
+        assertThat(mysqlExecutor.submit(() -> Thread.currentThread().getName()).get()).startsWith("mysql-");
+    }
+}
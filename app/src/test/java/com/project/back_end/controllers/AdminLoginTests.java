@@ -0,0 +1,32 @@
+package com.project.back_end.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.back_end.models.Admin;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.support.EndpointTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+class AdminLoginTests extends EndpointTestSupport {
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @Test
+    void adminLogsInWithAStoredAccount() throws Exception {
+        if (adminRepository.findByUsername("clinic-admin") == null) {
+            adminRepository.save(new Admin(null, "clinic-admin", "secret123"));
+        }
+
+        MockHttpServletResponse response = perform(post("/admin/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"clinic-admin\", \"password\": \"secret123\"}")).getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(tokenService.validateToken(JsonPath.read(response.getContentAsString(), "$.token"), "admin")).isTrue();
+    }
+}
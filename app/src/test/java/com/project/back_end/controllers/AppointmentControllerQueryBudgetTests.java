@@ -0,0 +1,105 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.support.EndpointTestSupport;
+import com.project.back_end.support.QueryBudget;
+import com.project.back_end.support.QueryCounter;
+import com.project.back_end.support.StandInDatabases;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class AppointmentControllerQueryBudgetTests extends EndpointTestSupport {
+
+    @Test
+    @QueryBudget(statements = 2)
+    void getAppointments() throws Exception {
+        int status = perform(get("/appointments/{date}/{patientName}/{token}", APPOINTMENT_DATE, "ada", doctorToken()))
+                .getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+    }
+
+    @Test
+    // Token check, the doctor, their booked appointments and offered slots, then the insert
+    @QueryBudget(statements = 5, exact = true)
+    void bookAppointment() throws Exception {
+        String body = """
+                {"doctor": {"id": %d}, "patient": {"id": %d}, "appointmentTime": "%sT10:00:00", "status": 0}
+                """.formatted(doctor.getId(), patient.getId(), APPOINTMENT_DATE);
+
+        int status = perform(post("/appointments/{token}", patientToken())
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .getResponse().getStatus();
+
+        assertThat(status).isEqualTo(201);
+    }
+
+    @Test
+    // Token check, the appointment row, the doctor's existence, conflicting appointments, then the update
+    @QueryBudget(statements = 5, exact = true)
+    void updateAppointment() throws Exception {
+        String body = """
+                {"id": %d, "doctor": {"id": %d}, "patient": {"id": %d}, "appointmentTime": "%sT10:00:00", "status": 0}
+                """.formatted(appointment.getId(), doctor.getId(), patient.getId(), APPOINTMENT_DATE);
+
+        int status = perform(put("/appointments/{token}", patientToken())
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+    }
+
+    @Test
+    // Token check, the appointment with its patient, then the delete
+    @QueryBudget(statements = 3, exact = true)
+    void cancelAppointment() throws Exception {
+        int status = perform(delete("/appointments/{id}/{token}", appointment.getId(), patientToken()))
+                .getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+    }
+
+    @Test
+    @QueryBudget(statements = 3)
+    void exportAppointments() throws Exception {
+        // More rows than the stand-in's fetch size and the export's flush interval
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 1; i < 3 * StandInDatabases.STREAMING_FETCH_SIZE + 20; i++) {
+            appointments.add(new Appointment(null, doctor, patient, APPOINTMENT_DATE.atTime(9, 0).plusMinutes(i), 0));
+        }
+        appointmentRepository.saveAll(appointments);
+
+        QueryCounter.reset();
+        MockHttpServletResponse response = perform(get("/appointments/export/{user}/{from}/{to}/{token}",
+                "doctor", APPOINTMENT_DATE, APPOINTMENT_DATE.plusDays(1), doctorToken()))
+                .getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+        assertThat(response.getContentAsString().lines()).hasSize(appointments.size() + 1)
+                .allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+    }
+
+    @Test
+    @QueryBudget(statements = 2)
+    void exportAppointmentsRejectsMalformedAndReversedRanges() throws Exception {
+        String token = doctorToken();
+        QueryCounter.reset();
+
+        for (String[] range : new String[][] {{"2024-13-01", "2024-12-31"}, {"yesterday", "today"}, {"2024-03-10", "2024-03-01"}}) {
+            int status = perform(get("/appointments/export/{user}/{from}/{to}/{token}", "doctor", range[0], range[1], token))
+                    .getResponse().getStatus();
+            assertThat(status).as("%s to %s", range[0], range[1]).isEqualTo(400);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.support.EndpointTestSupport;
+import com.project.back_end.support.QueryBudget;
+import com.project.back_end.support.QueryCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class DoctorControllerQueryBudgetTests extends EndpointTestSupport {
+
+    @Test
+    @QueryBudget(statements = 1)
+    void getDoctors() throws Exception {
+        int status = perform(get("/doctor")).getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+    }
+
+    @Test
+    @QueryBudget(statements = 0)
+    void getDoctorsServedFromQueryCache() throws Exception {
+        perform(get("/doctor"));
+
+        QueryCounter.reset();
+        int status = perform(get("/doctor")).getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+    }
+
+    @Test
+    @QueryBudget(statements = 4)
+    void getDoctorAvailability() throws Exception {
+        MockHttpServletResponse response = perform(get("/doctor/availability/{user}/{doctorId}/{date}/{token}",
+                "patient", doctor.getId(), APPOINTMENT_DATE, patientToken())).getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("[\"10:00-11:00\"]");
+    }
+
+    @Test
+    @QueryBudget(statements = 1)
+    void getDoctorAvailabilityServedFromEntityCache() throws Exception {
+        perform(get("/doctor/availability/{user}/{doctorId}/{date}/{token}",
+                "patient", doctor.getId(), APPOINTMENT_DATE, patientToken()));
+
+        QueryCounter.reset();
+        MockHttpServletResponse response = perform(get("/doctor/availability/{user}/{doctorId}/{date}/{token}",
+                "patient", doctor.getId(), APPOINTMENT_DATE, patientToken())).getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("[\"10:00-11:00\"]");
+    }
+}
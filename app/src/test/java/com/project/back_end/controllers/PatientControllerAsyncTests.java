@@ -0,0 +1,55 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.support.EndpointTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// The patient read endpoints run on the MySQL executor (one thread and one queue slot here), not the servlet thread
+@TestPropertySource(properties = {"executors.mysql.pool-size=1", "executors.mysql.queue-capacity=1"})
+class PatientControllerAsyncTests extends EndpointTestSupport {
+
+    @Autowired
+    @Qualifier("mysqlExecutor")
+    private Executor mysqlExecutor;
+
+    @Test
+    void patientAppointmentsAreServedAsynchronously() throws Exception {
+        MvcResult result = mockMvc.perform(get("/patient/{id}/{token}", patient.getId(), patientToken())).andReturn();
+
+        assertThat(result.getRequest().isAsyncStarted()).isTrue();
+        assertThat(mockMvc.perform(asyncDispatch(result)).andReturn().getResponse().getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void aSaturatedMysqlExecutorTurnsRequestsAway() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // One task holds the executor's thread, the other its queue slot
+        for (int i = 0; i < 2; i++) {
+            mysqlExecutor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        try {
+            assertThat(perform(get("/patient/{id}/{token}", patient.getId(), patientToken())).getResponse().getStatus())
+                    .isEqualTo(503);
+            assertThat(perform(get("/patient/home/{token}", patientToken())).getResponse().getStatus())
+                    .isEqualTo(503);
+        } finally {
+            release.countDown();
+        }
+    }
+}
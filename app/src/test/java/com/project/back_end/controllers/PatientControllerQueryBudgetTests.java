@@ -0,0 +1,60 @@
+package com.project.back_end.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.support.EndpointTestSupport;
+import com.project.back_end.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class PatientControllerQueryBudgetTests extends EndpointTestSupport {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void createHistory() {
+        for (int day = 2; day <= 6; day++) {
+            createPrescription(createAppointment(APPOINTMENT_DATE.plusDays(day).atTime(10, 0)), "Medication " + day);
+        }
+    }
+
+    @Test
+    // Patient lookup, then one page query each on appointment and archived_appointment
+    @QueryBudget(statements = 3)
+    void getPatientAppointments() throws Exception {
+        int status = perform(get("/patient/{id}/{token}", patient.getId(), patientToken())).getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+    }
+
+    @Test
+    @QueryBudget(statements = 3, mongoCommands = 1)
+    void getPatientHome() throws Exception {
+        int status = perform(get("/patient/home/{token}", patientToken())).getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+    }
+
+    @Test
+    // The patient page sends "null" for the doctor-name filter it leaves unset
+    @QueryBudget(statements = 6, allowRepeatedSelects = true)
+    void filteredAppointmentsArePagedWithNextCursor() throws Exception {
+        String token = patientToken();
+
+        JsonNode first = objectMapper.readTree(perform(get("/patient/filter/{condition}/{name}/{token}", "future", "null", token)
+                .param("size", "4")).getResponse().getContentAsString());
+        JsonNode second = objectMapper.readTree(perform(get("/patient/filter/{condition}/{name}/{token}", "future", "null", token)
+                .param("size", "4").param("cursor", first.get("nextCursor").asText())).getResponse().getContentAsString());
+
+        assertThat(first.get("appointments")).hasSize(4);
+        assertThat(second.get("appointments")).hasSize(2);
+        assertThat(second.get("nextCursor").isNull()).isTrue();
+        assertThat(second.get("appointments").get(0).get("appointmentTime").asText())
+                .isGreaterThan(first.get("appointments").get(3).get("appointmentTime").asText());
+    }
+}
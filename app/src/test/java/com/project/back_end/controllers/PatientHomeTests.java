@@ -0,0 +1,46 @@
+package com.project.back_end.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.support.EndpointTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// The patient pages show the home response's upcoming appointments and page on with the "future" filter
+@TestPropertySource(properties = "patient.home.upcoming-limit=2")
+class PatientHomeTests extends EndpointTestSupport {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void upcomingAppointmentsContinueWithTheFutureFilter() throws Exception {
+        for (int day = 1; day <= 3; day++) {
+            createAppointment(APPOINTMENT_DATE.plusDays(day).atTime(9, 0));
+        }
+        String token = patientToken();
+
+        JsonNode home = json(perform(get("/patient/home/{token}", token)).getResponse().getContentAsString());
+        JsonNode rest = json(perform(get("/patient/filter/{condition}/{name}/{token}", "future", "null", token)
+                .param("cursor", home.get("nextCursor").asText())).getResponse().getContentAsString());
+
+        assertThat(home.get("patient").get("id").asLong()).isEqualTo(patient.getId());
+        List<Long> ids = new ArrayList<>();
+        home.get("appointments").forEach(appointment -> ids.add(appointment.get("id").asLong()));
+        rest.get("appointments").forEach(appointment -> ids.add(appointment.get("id").asLong()));
+        assertThat(home.get("appointments")).hasSize(2);
+        assertThat(ids).hasSize(4).doesNotHaveDuplicates().contains(appointment.getId());
+        assertThat(rest.get("nextCursor").isNull()).isTrue();
+    }
+
+    private JsonNode json(String content) throws Exception {
+        return objectMapper.readTree(content);
+    }
+}
@@ -0,0 +1,111 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.support.EndpointTestSupport;
+import com.project.back_end.support.QueryBudget;
+import com.project.back_end.support.QueryCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+class PrescriptionControllerQueryBudgetTests extends EndpointTestSupport {
+
+    private static final String PRESCRIPTION = """
+            {"patientName": "Ada Lovelace", "appointmentId": %d, "medication": "Paracetamol", "dosage": "500 mg"}""";
+
+    @Test
+    @QueryBudget(statements = 2, mongoCommands = 1)
+    void savePrescription() throws Exception {
+        int status = perform(post("/prescription/{token}", doctorToken())
+                .contentType(MediaType.APPLICATION_JSON).content(PRESCRIPTION.formatted(appointment.getId())))
+                .getResponse().getStatus();
+
+        assertThat(status).isEqualTo(201);
+    }
+
+    @Test
+    @QueryBudget(statements = 1, mongoCommands = 1)
+    void getPrescription() throws Exception {
+        createPrescription(appointment, "Paracetamol");
+
+        QueryCounter.reset();
+        int status = perform(get("/prescription/{appointmentId}/{token}", appointment.getId(), doctorToken()))
+                .getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+    }
+
+    @Test
+    @QueryBudget(statements = 0)
+    void getPrescriptionServedFromCache() throws Exception {
+        createPrescription(appointment, "Paracetamol");
+        perform(get("/prescription/{appointmentId}/{token}", appointment.getId(), doctorToken()));
+
+        QueryCounter.reset();
+        int status = perform(get("/prescription/{appointmentId}/{token}", appointment.getId(), doctorToken()))
+                .getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+    }
+
+    @Test
+    @QueryBudget(statements = 1, mongoCommands = 1)
+    void getPrescriptions() throws Exception {
+        Appointment second = createAppointment(APPOINTMENT_DATE.plusDays(1).atTime(9, 0));
+        createPrescription(appointment, "Paracetamol");
+        createPrescription(second, "Ibuprofen");
+
+        QueryCounter.reset();
+        int status = perform(get("/prescription/batch/{token}", doctorToken())
+                .param("appointmentIds", appointment.getId() + "," + second.getId() + ",999999"))
+                .getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+    }
+
+    @Test
+    @QueryBudget(statements = 2, mongoCommands = 2)
+    void savePrescriptions() throws Exception {
+        Appointment second = createAppointment(APPOINTMENT_DATE.plusDays(1).atTime(9, 0));
+        Appointment third = createAppointment(APPOINTMENT_DATE.plusDays(2).atTime(9, 0));
+        String body = "[" + PRESCRIPTION.formatted(appointment.getId()) + ","
+                + PRESCRIPTION.formatted(second.getId()) + ","
+                + PRESCRIPTION.formatted(third.getId()) + "]";
+
+        QueryCounter.reset();
+        MockHttpServletResponse response = perform(post("/prescription/bulk/{token}", doctorToken())
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).contains("\"created\":3");
+    }
+
+    @Test
+    @QueryBudget(statements = 2, mongoCommands = 1)
+    void getPatientHistory() throws Exception {
+        createPrescription(appointment, "Paracetamol");
+
+        QueryCounter.reset();
+        int status = perform(get("/prescription/patient/{patientId}/{user}/{token}",
+                patient.getId(), "patient", patientToken()))
+                .getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+    }
+
+    @Test
+    @QueryBudget(statements = 2, mongoCommands = 1)
+    void getMedicationUsage() throws Exception {
+        createPrescription(appointment, "Paracetamol");
+
+        QueryCounter.reset();
+        int status = perform(get("/prescription/medications/{token}", doctorToken())).getResponse().getStatus();
+
+        assertThat(status).isEqualTo(200);
+    }
+}
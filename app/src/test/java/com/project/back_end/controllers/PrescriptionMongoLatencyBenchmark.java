@@ -0,0 +1,286 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.BackEndApplication;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+import com.project.back_end.services.TokenService;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import de.bwaldvogel.mongo.bson.Document;
+import de.bwaldvogel.mongo.wire.message.MongoMessage;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Latency of the doctor's day view (an appointment endpoint that only reads MySQL) while MongoDB is slow and many
+// clients read prescription histories, with the prescription handlers as they are (returning a Mono, so the Tomcat
+// thread is released while Mongo works) and blocking (the same handlers with the Mono awaited on the Tomcat thread,
+// as the synchronous repository did). Every Mongo command is delayed by MONGO_LATENCY in the in-process stand-in;
+// MySQL is not slowed. The application runs in-process on a random port, once per mode and round (rounds alternate
+// the mode order). PRESCRIPTION_CLIENTS is above Tomcat's 200 threads, so blocking handlers can hold all of them.
+// Opt-in, as it takes a while:  mvn test -Dtest=PrescriptionMongoLatencyBenchmark -Dbenchmark=true
+//   [-DprescriptionClients=300 -DappointmentClients=20 -DmongoLatencyMillis=50]
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PrescriptionMongoLatencyBenchmark {
+
+    private static final int PRESCRIPTION_CLIENTS = Integer.getInteger("prescriptionClients", 300);
+    private static final int APPOINTMENT_CLIENTS = Integer.getInteger("appointmentClients", 20);
+    private static final Duration MONGO_LATENCY = Duration.ofMillis(Integer.getInteger("mongoLatencyMillis", 50));
+    // One stand-in event loop per driver connection (two clients, sync and reactive, of up to 100 each), so a delayed
+    // command only holds its own connection, as on a real server
+    private static final int MONGO_WORKER_THREADS = 200;
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+    private static final int ROUNDS = 2;
+    private static final LocalDate DATE = LocalDate.now().plusWeeks(1);
+
+    // Off while the application starts and the fixtures are written
+    private static volatile boolean mongoSlowed;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void appointmentLatencyWithBlockingAndReactivePrescriptionHandlers() throws Exception {
+        Map<String, List<Result>> results = new LinkedHashMap<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Boolean> order = round % 2 == 0 ? List.of(true, false) : List.of(false, true);
+            for (boolean blocking : order) {
+                String mode = blocking ? "blocking" : "reactive";
+                results.computeIfAbsent(mode, key -> new ArrayList<>()).add(run(blocking, round));
+            }
+        }
+
+        System.out.printf("%n%d prescription clients, %d appointment clients, %d ms per Mongo command%n",
+                PRESCRIPTION_CLIENTS, APPOINTMENT_CLIENTS, MONGO_LATENCY.toMillis());
+        System.out.printf("%-10s %16s %16s %16s %16s %8s%n", "handlers", "appointment", "appointment",
+                "prescription", "prescription", "errors");
+        System.out.printf("%-10s %16s %16s %16s %16s%n", "", "p50 (ms)", "p99 (ms)", "p99 (ms)", "requests/s");
+        results.forEach((mode, rounds) -> System.out.printf("%-10s %16.1f %16.1f %16.1f %16.0f %8d%n", mode,
+                rounds.stream().mapToDouble(result -> result.appointments().p50Millis()).average().orElseThrow(),
+                rounds.stream().mapToDouble(result -> result.appointments().p99Millis()).average().orElseThrow(),
+                rounds.stream().mapToDouble(result -> result.prescriptions().p99Millis()).average().orElseThrow(),
+                rounds.stream().mapToDouble(result -> result.prescriptions().throughput()).average().orElseThrow(),
+                rounds.stream().mapToLong(result -> result.appointments().errors() + result.prescriptions().errors()).sum()));
+
+        assertThat(results).hasSize(2);
+    }
+
+    private Result run(boolean blocking, int round) throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(BackEndApplication.class)
+                .initializers(context -> {
+                    context.getBeanFactory().addBeanPostProcessor(new SlowMongo());
+                    if (blocking) {
+                        context.getBeanFactory().addBeanPostProcessor(new BlockingPrescriptionHandlers());
+                    }
+                });
+        // Arguments, as they take precedence over the test overrides in config/application.properties
+        try (ConfigurableApplicationContext context = application.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:mongo-latency-" + blocking + "-" + round
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                // Reactive handlers are not held to Tomcat's threads, so every client's token check can be queued for
+                // the MySQL executor at once; its default queue of 100 would reject them
+                "--executors.mysql.queue-capacity=" + (PRESCRIPTION_CLIENTS + APPOINTMENT_CLIENTS),
+                "--logging.level.root=WARN")) {
+            Fixtures fixtures = fixtures(context);
+            mongoSlowed = true;
+            try {
+                load(fixtures, WARMUP);
+                return load(fixtures, MEASUREMENT);
+            } finally {
+                mongoSlowed = false;
+            }
+        }
+    }
+
+    private record Fixtures(URI appointments, URI prescriptions) {
+    }
+
+    private Fixtures fixtures(ConfigurableApplicationContext context) {
+        Doctor doctor = new Doctor();
+        doctor.setName("Dr Grace Hopper");
+        doctor.setSpecialty("Cardiology");
+        doctor.setEmail("grace@clinic.test");
+        doctor.setPassword("secret123");
+        doctor.setPhone("5550000001");
+        doctor.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00", "11:00-12:00"));
+        doctor = context.getBean(DoctorRepository.class).save(doctor);
+
+        Patient patient = new Patient();
+        patient.setName("Ada Lovelace");
+        patient.setEmail("ada@clinic.test");
+        patient.setPassword("secret123");
+        patient.setPhone("5550000002");
+        patient.setAddress("12 Analytical Street");
+        patient = context.getBean(PatientRepository.class).save(patient);
+
+        Appointment appointment = context.getBean(AppointmentRepository.class)
+                .save(new Appointment(null, doctor, patient, DATE.atTime(9, 0), 0));
+        Prescription prescription = new Prescription(null, patient.getName(), appointment.getId(), "Ibuprofen",
+                "1 tablet daily", null);
+        prescription.setPatientId(patient.getId());
+        prescription.setDoctorId(doctor.getId());
+        prescription.setIssuedAt(LocalDateTime.now());
+        context.getBean(PrescriptionRepository.class).save(prescription);
+
+        String doctorToken = context.getBean(TokenService.class).generateToken(doctor.getEmail());
+        String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        // The history is an aggregation, so unlike a single prescription it is never served from PrescriptionCache
+        return new Fixtures(
+                URI.create(base + "/appointments/" + DATE + "/null/" + doctorToken),
+                URI.create(base + "/prescription/patient/" + patient.getId() + "/doctor/" + doctorToken));
+    }
+
+    // Both groups of clients at once, each client sending its next request as soon as the previous one is answered
+    private Result load(Fixtures fixtures, Duration duration) throws Exception {
+        long end = System.nanoTime() + duration.toNanos();
+        AtomicLong appointmentErrors = new AtomicLong();
+        AtomicLong prescriptionErrors = new AtomicLong();
+        List<Future<long[]>> appointmentClients = new ArrayList<>();
+        List<Future<long[]>> prescriptionClients = new ArrayList<>();
+        long start = System.nanoTime();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < PRESCRIPTION_CLIENTS; c++) {
+                prescriptionClients.add(threads.submit(() -> client(fixtures.prescriptions(), end, prescriptionErrors)));
+            }
+            for (int c = 0; c < APPOINTMENT_CLIENTS; c++) {
+                appointmentClients.add(threads.submit(() -> client(fixtures.appointments(), end, appointmentErrors)));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(latencies(appointmentClients, seconds, appointmentErrors.get()),
+                latencies(prescriptionClients, seconds, prescriptionErrors.get()));
+    }
+
+    private long[] client(URI uri, long end, AtomicLong errors) throws InterruptedException {
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < end) {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build();
+            long sent = System.nanoTime();
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+            } catch (IOException timedOut) {
+                errors.incrementAndGet();
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - sent;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static Latencies latencies(List<Future<long[]>> clients, double seconds, long errors) throws Exception {
+        List<long[]> perClient = new ArrayList<>();
+        for (Future<long[]> client : clients) {
+            perClient.add(client.get());
+        }
+        long[] sorted = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Latencies(sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99), errors);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)] / 1e6;
+    }
+
+    private record Latencies(double throughput, double p50Millis, double p99Millis, long errors) {
+    }
+
+    private record Result(Latencies appointments, Latencies prescriptions) {
+    }
+
+    // Replaces the stand-in's (not yet bound) server with one whose backend delays every command while mongoSlowed
+    private static final class SlowMongo implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            if (bean instanceof MongoServer && !(bean instanceof SlowMongoServer)) {
+                return new SlowMongoServer();
+            }
+            return bean;
+        }
+    }
+
+    private static final class SlowMongoServer extends MongoServer {
+
+        SlowMongoServer() {
+            super(new MemoryBackend() {
+                @Override
+                public Document handleMessage(MongoMessage message) {
+                    if (mongoSlowed) {
+                        try {
+                            Thread.sleep(MONGO_LATENCY);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return super.handleMessage(message);
+                }
+            });
+        }
+
+        @Override
+        public InetSocketAddress bind() {
+            bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1, MONGO_WORKER_THREADS);
+            return getLocalAddress();
+        }
+    }
+
+    // Awaits every prescription handler's Mono on the Tomcat thread, so the thread is held while Mongo works
+    private static final class BlockingPrescriptionHandlers implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof PrescriptionController) {
+                ProxyFactory proxy = new ProxyFactory(bean);
+                proxy.setProxyTargetClass(true);
+                proxy.addAdvice((MethodInterceptor) invocation -> {
+                    Object result = invocation.proceed();
+                    return result instanceof Mono<?> mono ? Mono.justOrEmpty(mono.block()) : result;
+                });
+                return proxy.getProxy();
+            }
+            return bean;
+        }
+    }
+}
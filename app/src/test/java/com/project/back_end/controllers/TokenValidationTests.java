@@ -0,0 +1,79 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.support.EndpointTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// The appointment and doctor controllers treat a null validateToken result as a valid token
+class TokenValidationTests extends EndpointTestSupport {
+
+    private static final String ADMIN = "clinic-admin";
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @BeforeEach
+    void createAdmin() {
+        if (adminRepository.findByUsername(ADMIN) == null) {
+            adminRepository.save(new Admin(null, ADMIN, "secret123"));
+        }
+    }
+
+    @Test
+    void validTokensReachTheHandlers() throws Exception {
+        int dayView = perform(get("/appointments/{date}/{patientName}/{token}", APPOINTMENT_DATE, "null", doctorToken()))
+                .getResponse().getStatus();
+        int availability = perform(get("/doctor/availability/{user}/{doctorId}/{date}/{token}",
+                "patient", doctor.getId(), APPOINTMENT_DATE, patientToken())).getResponse().getStatus();
+        int deleteUnknownDoctor = perform(delete("/doctor/{id}/{token}", Long.MAX_VALUE, tokenService.generateToken(ADMIN)))
+                .getResponse().getStatus();
+
+        assertThat(dayView).isEqualTo(200);
+        assertThat(availability).isEqualTo(200);
+        assertThat(deleteUnknownDoctor).isEqualTo(404);
+    }
+
+    @Test
+    void invalidTokensAreRejected() throws Exception {
+        int dayView = perform(get("/appointments/{date}/{patientName}/{token}", APPOINTMENT_DATE, "null", patientToken()))
+                .getResponse().getStatus();
+        int cancel = perform(delete("/appointments/{id}/{token}", appointment.getId(), doctorToken()))
+                .getResponse().getStatus();
+        int deleteDoctor = perform(delete("/doctor/{id}/{token}", doctor.getId(), patientToken()))
+                .getResponse().getStatus();
+
+        assertThat(dayView).isEqualTo(401);
+        assertThat(cancel).isEqualTo(401);
+        assertThat(deleteDoctor).isEqualTo(401);
+        assertThat(appointmentRepository.existsById(appointment.getId())).isTrue();
+        assertThat(doctorRepository.existsById(doctor.getId())).isTrue();
+    }
+
+    @Test
+    void patientsCanOnlyCancelTheirOwnAppointments() throws Exception {
+        Patient other = new Patient();
+        other.setName("Alan Turing");
+        other.setEmail("alan@clinic.test");
+        other.setPassword("secret123");
+        other.setPhone("5550000003");
+        other.setAddress("1 Bletchley Park");
+        other = patientRepository.save(other);
+
+        int byOther = perform(delete("/appointments/{id}/{token}", appointment.getId(),
+                tokenService.generateToken(other.getEmail()))).getResponse().getStatus();
+        assertThat(byOther).isEqualTo(403);
+        assertThat(appointmentRepository.existsById(appointment.getId())).isTrue();
+
+        int byOwner = perform(delete("/appointments/{id}/{token}", appointment.getId(), patientToken()))
+                .getResponse().getStatus();
+        assertThat(byOwner).isEqualTo(200);
+    }
+}
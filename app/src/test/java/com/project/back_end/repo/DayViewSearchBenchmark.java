@@ -0,0 +1,167 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Patient;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Latency of the doctor day view's patient-name search (AppointmentRepository
+// .findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween) as the patient table grows, with the
+// query it replaced (LOWER(name) LIKE over outer joins) alongside. Every patient has APPOINTMENTS_PER_PATIENT
+// appointments, so the appointment table grows with it while a doctor's day stays a handful of rows.
+// Opt-in, as it takes a while:  mvn test -Dtest=DayViewSearchBenchmark -Dbenchmark=true
+// Runs on H2 in MySQL mode, so absolute numbers are not MySQL's; how they change with the table size is what it shows.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DayViewSearchBenchmark {
+
+    private static final int DOCTORS = 500;
+    private static final int[] PATIENT_COUNTS = {5_000, 20_000, 80_000};
+    private static final int APPOINTMENTS_PER_PATIENT = 5;
+    private static final int DAYS = 730;
+    private static final int SAMPLES = 1_000;
+    private static final int WARMUP = 300;
+    private static final int ITERATIONS = 500;
+    private static final String[] NAMES = {"Ada Lovelace", "Grace Hopper", "José Núñez", "Zoë Ångström", "Alan Turing",
+            "Katherine Johnson", "Émilie du Châtelet", "Edsger Dijkstra", "Barbara Liskov", "Søren Kierkegaard"};
+
+    // The SQL Hibernate issues for the current query and for the one it replaced
+    private static final String NORMALIZED_SEARCH =
+            "select a.*, p.*, d.* from appointment a " +
+            "join patient p on p.id = a.patient_id join doctor d on d.id = a.doctor_id " +
+            "where a.doctor_id = ? and a.appointment_time between ? and ? and p.search_name like concat('%', ?, '%')";
+    private static final String LOWER_NAME_SEARCH =
+            "select a.*, p.*, d.* from appointment a " +
+            "left join patient p on p.id = a.patient_id left join doctor d on d.id = a.doctor_id " +
+            "where d.id = ? and lower(p.name) like lower(concat('%', ?, '%')) and a.appointment_time between ? and ?";
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final LocalDate firstDay = LocalDate.now().minusYears(1);
+
+    // A day view that has at least one appointment: doctor, day and the name of one of its patients
+    private record DayView(long doctorId, LocalDate day, String name) {
+    }
+
+    @Test
+    void nameSearchAsThePatientTableGrows() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:day-view;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        doctors(jdbc);
+
+        Map<Integer, long[][]> results = new LinkedHashMap<>();
+        List<DayView> samples = new ArrayList<>();
+        int patients = 0;
+        for (int target : PATIENT_COUNTS) {
+            patients = patients(jdbc, patients, target, samples);
+            jdbc.execute("analyze");
+            results.put(patients, new long[][]{
+                    measure(samples, view -> jdbc.queryForList(NORMALIZED_SEARCH, view.doctorId(),
+                            Timestamp.valueOf(view.day().atStartOfDay()), Timestamp.valueOf(view.day().atTime(23, 59, 59)),
+                            Patient.normalizeSearchKey(fragment(view.name())))),
+                    measure(samples, view -> jdbc.queryForList(LOWER_NAME_SEARCH, view.doctorId(), fragment(view.name()),
+                            Timestamp.valueOf(view.day().atStartOfDay()), Timestamp.valueOf(view.day().atTime(23, 59, 59))))
+            });
+        }
+
+        System.out.printf("%n%-10s %14s %14s %14s %14s%n", "patients", "search_name", "search_name", "LOWER(name)",
+                "LOWER(name)");
+        System.out.printf("%-10s %14s %14s %14s %14s%n", "", "median (us)", "p99 (us)", "median (us)", "p99 (us)");
+        results.forEach((count, latencies) -> System.out.printf("%-10d %14d %14d %14d %14d%n", count,
+                percentile(latencies[0], 50), percentile(latencies[0], 99),
+                percentile(latencies[1], 50), percentile(latencies[1], 99)));
+
+        assertThat(results).hasSize(PATIENT_COUNTS.length);
+    }
+
+    private void doctors(JdbcTemplate jdbc) {
+        List<Object[]> doctors = new ArrayList<>();
+        for (int i = 1; i <= DOCTORS; i++) {
+            doctors.add(new Object[]{"Doctor " + i, "Cardiology", "doctor" + i + "@clinic.test", "secret1", phone(i)});
+        }
+        jdbc.batchUpdate("insert into doctor (name, specialty, email, password, phone) values (?, ?, ?, ?, ?)", doctors);
+    }
+
+    // Adds patients from + 1 up to `to` with their appointments, and keeps a reservoir sample of their day views
+    private int patients(JdbcTemplate jdbc, int from, int to, List<DayView> samples) {
+        List<Object[]> patients = new ArrayList<>();
+        List<Object[]> appointments = new ArrayList<>();
+        for (int patient = from + 1; patient <= to; patient++) {
+            String name = NAMES[patient % NAMES.length] + " " + patient;
+            patients.add(new Object[]{patient, name, Patient.normalizeSearchKey(name), "Street " + patient,
+                    "patient" + patient + "@mail.test", "secret1", phone(DOCTORS + patient)});
+            for (int n = 0; n < APPOINTMENTS_PER_PATIENT; n++) {
+                int doctor = 1 + random.nextInt(DOCTORS);
+                LocalDateTime time = firstDay.atTime(8, 0).plusDays(random.nextInt(DAYS)).plusMinutes(30L * random.nextInt(20));
+                appointments.add(new Object[]{doctor, patient, Timestamp.valueOf(time), 0});
+                DayView view = new DayView(doctor, time.toLocalDate(), name);
+                int seen = (patient - 1) * APPOINTMENTS_PER_PATIENT + n;
+                if (samples.size() < SAMPLES) {
+                    samples.add(view);
+                } else if (random.nextInt(seen + 1) < SAMPLES) {
+                    samples.set(random.nextInt(SAMPLES), view);
+                }
+            }
+            if (appointments.size() >= 10_000) {
+                insert(jdbc, patients, appointments);
+            }
+        }
+        insert(jdbc, patients, appointments);
+        return to;
+    }
+
+    private void insert(JdbcTemplate jdbc, List<Object[]> patients, List<Object[]> appointments) {
+        jdbc.batchUpdate("insert into patient (id, name, search_name, address, email, password, phone) " +
+                "values (?, ?, ?, ?, ?, ?, ?)", patients);
+        jdbc.batchUpdate("insert into appointment (doctor_id, patient_id, appointment_time, status) values (?, ?, ?, ?)",
+                appointments);
+        patients.clear();
+        appointments.clear();
+    }
+
+    private long[] measure(List<DayView> samples, Consumer<DayView> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.accept(samples.get(random.nextInt(samples.size())));
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            DayView view = samples.get(random.nextInt(samples.size()));
+            long start = System.nanoTime();
+            query.accept(view);
+            nanos[i] = System.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+    // What a doctor types: the start of the patient's surname, in a different case
+    private static String fragment(String name) {
+        String surname = name.split(" ")[1];
+        return surname.substring(0, Math.min(4, surname.length())).toUpperCase();
+    }
+
+    private static long percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)] / 1_000;
+    }
+
+    private static String phone(int i) {
+        return String.format("%010d", i);
+    }
+}
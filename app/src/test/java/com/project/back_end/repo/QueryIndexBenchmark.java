@@ -0,0 +1,154 @@
+package com.project.back_end.repo;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Latency of the hot repository queries on a synthetic dataset, on the V1.1 schema and again after V2 adds its indexes.
+// Opt-in, as it takes a while:  mvn test -Dtest=QueryIndexBenchmark -Dbenchmark=true
+// Runs on H2 in MySQL mode, so absolute numbers are not MySQL's; the before/after ratio is what it shows.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class QueryIndexBenchmark {
+
+    private static final int DOCTORS = 500;
+    private static final int PATIENTS = 20_000;
+    private static final int APPOINTMENTS_PER_PATIENT = 5;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Test
+    void hotQueriesBeforeAndAfterIndexes() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        flyway(dataSource, "1.1").migrate();
+        seed(jdbc);
+        Map<String, long[]> before = measure(jdbc);
+
+        flyway(dataSource, "latest").migrate();
+        Map<String, long[]> after = measure(jdbc);
+
+        System.out.printf("%n%-34s %14s %14s %14s %14s%n", "query (us)", "V1.1 median", "V1.1 p99", "V2 median",
+                "V2 p99");
+        before.forEach((query, latencies) -> System.out.printf("%-34s %14d %14d %14d %14d%n", query,
+                percentile(latencies, 50), percentile(latencies, 99),
+                percentile(after.get(query), 50), percentile(after.get(query), 99)));
+
+        assertThat(after).containsOnlyKeys(before.keySet());
+    }
+
+    private Flyway flyway(DataSource dataSource, String target) {
+        return Flyway.configure().dataSource(dataSource).target(target).load();
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        List<Object[]> doctors = new ArrayList<>();
+        for (int i = 1; i <= DOCTORS; i++) {
+            doctors.add(new Object[]{"Doctor " + i, "Cardiology", "doctor" + i + "@clinic.test", "secret1", phone(i)});
+        }
+        jdbc.batchUpdate("insert into doctor (name, specialty, email, password, phone) values (?, ?, ?, ?, ?)", doctors);
+
+        List<Object[]> patients = new ArrayList<>();
+        for (int i = 1; i <= PATIENTS; i++) {
+            patients.add(new Object[]{"Patient " + i, "patient " + i, "Street " + i, "patient" + i + "@mail.test",
+                    "secret1", phone(DOCTORS + i)});
+        }
+        jdbc.batchUpdate("insert into patient (name, search_name, address, email, password, phone) values (?, ?, ?, ?, ?, ?)",
+                patients);
+
+        admin(jdbc);
+
+        LocalDateTime start = LocalDateTime.now().minusYears(1).withMinute(0).withSecond(0).withNano(0);
+        List<Object[]> appointments = new ArrayList<>();
+        for (int patient = 1; patient <= PATIENTS; patient++) {
+            for (int n = 0; n < APPOINTMENTS_PER_PATIENT; n++) {
+                LocalDateTime time = start.plusHours(random.nextInt(24 * 730));
+                int status = time.isBefore(LocalDateTime.now()) ? 1 : 0;
+                appointments.add(new Object[]{1 + random.nextInt(DOCTORS), patient, Timestamp.valueOf(time), status});
+            }
+            if (appointments.size() >= 10_000) {
+                insertAppointments(jdbc, appointments);
+            }
+        }
+        insertAppointments(jdbc, appointments);
+        jdbc.execute("analyze");
+    }
+
+    private void admin(JdbcTemplate jdbc) {
+        List<Object[]> admins = new ArrayList<>();
+        for (int i = 1; i <= 1_000; i++) {
+            admins.add(new Object[]{"admin" + i, "secret1"});
+        }
+        jdbc.batchUpdate("insert into admin (username, password) values (?, ?)", admins);
+    }
+
+    private void insertAppointments(JdbcTemplate jdbc, List<Object[]> appointments) {
+        jdbc.batchUpdate("insert into appointment (doctor_id, patient_id, appointment_time, status) values (?, ?, ?, ?)",
+                appointments);
+        appointments.clear();
+    }
+
+    // The SQL Hibernate issues for the repository methods, with random keys from the synthetic data
+    private Map<String, long[]> measure(JdbcTemplate jdbc) {
+        Map<String, IntFunction<Object>> queries = new LinkedHashMap<>();
+        queries.put("PatientRepository.findByEmail", i -> jdbc.queryForList(
+                "select * from patient where email = ?", "patient" + i % PATIENTS + "@mail.test"));
+        queries.put("PatientRepository.findByEmailOrPhone", i -> jdbc.queryForList(
+                "select * from patient where email = ? or phone = ?", "nobody" + i + "@mail.test", phone(DOCTORS + i % PATIENTS)));
+        queries.put("DoctorRepository.findByEmail", i -> jdbc.queryForList(
+                "select * from doctor where email = ?", "doctor" + i % DOCTORS + "@clinic.test"));
+        queries.put("AdminRepository.findByUsername", i -> jdbc.queryForList(
+                "select * from admin where username = ?", "admin" + i % 1_000));
+        queries.put("findUpcomingByPatientEmail", i -> jdbc.queryForList(
+                "select a.* from appointment a join patient p on p.id = a.patient_id " +
+                        "where p.email = ? and a.status = 0 order by a.appointment_time, a.id limit 20",
+                "patient" + i % PATIENTS + "@mail.test"));
+        queries.put("findByPatient_IdAndStatus", i -> jdbc.queryForList(
+                "select * from appointment where patient_id = ? and status = ? order by appointment_time",
+                1 + i % PATIENTS, i % 2));
+
+        Map<String, long[]> latencies = new LinkedHashMap<>();
+        queries.forEach((name, query) -> {
+            for (int i = 0; i < WARMUP; i++) {
+                query.apply(random.nextInt(PATIENTS));
+            }
+            long[] nanos = new long[ITERATIONS];
+            for (int i = 0; i < ITERATIONS; i++) {
+                int key = random.nextInt(PATIENTS);
+                long start = System.nanoTime();
+                query.apply(key);
+                nanos[i] = System.nanoTime() - start;
+            }
+            latencies.put(name, nanos);
+        });
+        return latencies;
+    }
+
+    private static long percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)] / 1_000;
+    }
+
+    private static String phone(int i) {
+        return String.format("%010d", i);
+    }
+}
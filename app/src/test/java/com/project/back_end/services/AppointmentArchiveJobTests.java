@@ -0,0 +1,81 @@
+package com.project.back_end.services;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.back_end.config.AppointmentShards;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.support.EndpointTestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class AppointmentArchiveJobTests extends EndpointTestSupport {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Appointment lastYear;
+    private Appointment lastMonth;
+
+    @BeforeEach
+    void createPastAppointments() {
+        // Past times cannot be booked (@Future), so they are set directly
+        lastYear = backdate(createAppointment(APPOINTMENT_DATE.atTime(10, 0)), LocalDateTime.now().minusYears(1));
+        lastMonth = backdate(createAppointment(APPOINTMENT_DATE.plusDays(1).atTime(10, 0)), LocalDateTime.now().minusMonths(1));
+    }
+
+    @Test
+    void archivesCompletedAppointmentsOlderThanTheAgeInChunks() {
+        backdate(createAppointment(APPOINTMENT_DATE.plusDays(2).atTime(10, 0)), LocalDateTime.now().minusYears(2));
+
+        job(1).archiveOldAppointments();
+
+        assertThat(archivedAppointmentRepository.count()).isEqualTo(2);
+        assertThat(archivedAppointmentRepository.existsById(lastYear.getId())).isTrue();
+        assertThat(appointmentRepository.findAll()).extracting(Appointment::getId)
+                .containsExactlyInAnyOrder(appointment.getId(), lastMonth.getId());
+    }
+
+    @Test
+    void patientHistoryReadsArchivedAndCurrentAppointments() throws Exception {
+        job(500).archiveOldAppointments();
+
+        String firstPage = perform(get("/patient/{id}/{token}", patient.getId(), patientToken()).param("size", "2"))
+                .getResponse().getContentAsString();
+        String nextCursor = JsonPath.read(firstPage, "$.nextCursor");
+        String secondPage = perform(get("/patient/{id}/{token}", patient.getId(), patientToken())
+                .param("size", "2").param("cursor", nextCursor))
+                .getResponse().getContentAsString();
+
+        assertThat(JsonPath.<List<Integer>>read(firstPage, "$.appointments[*].id"))
+                .containsExactly(lastYear.getId().intValue(), lastMonth.getId().intValue());
+        assertThat(JsonPath.<List<Integer>>read(secondPage, "$.appointments[*].id"))
+                .containsExactly(appointment.getId().intValue());
+        assertThat(JsonPath.<String>read(secondPage, "$.nextCursor")).isNull();
+    }
+
+    private AppointmentArchiveJob job(int chunkSize) {
+        return new AppointmentArchiveJob(appointmentRepository, archivedAppointmentRepository,
+                AppointmentShards.unsharded(), transactionManager,
+                new SimpleMeterRegistry(), Duration.ofDays(180), chunkSize, 10, Duration.ZERO,
+                Duration.ofHours(1), Duration.ofHours(6));
+    }
+
+    private Appointment backdate(Appointment appointment, LocalDateTime time) {
+        jdbc.update("UPDATE appointment SET appointment_time = ?, status = 1 WHERE id = ?",
+                Timestamp.valueOf(time), appointment.getId());
+        return appointment;
+    }
+}
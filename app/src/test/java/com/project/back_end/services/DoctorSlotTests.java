@@ -0,0 +1,44 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.support.EndpointTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Doctor slots are stored as "HH:mm-HH:mm" and appointments match a slot on its start time
+class DoctorSlotTests extends EndpointTestSupport {
+
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private UtilityService utilityService;
+
+    @Test
+    void availabilityLeavesOutBookedSlots() {
+        assertThat(doctorService.getDoctorAvailability(doctor.getId(), APPOINTMENT_DATE)).containsExactly("10:00-11:00");
+        assertThat(doctorService.getDoctorAvailability(doctor.getId(), APPOINTMENT_DATE.plusDays(1)))
+                .containsExactly("09:00-10:00", "10:00-11:00");
+    }
+
+    @Test
+    void appointmentsMustStartAFreeSlot() {
+        assertThat(utilityService.validateAppointment(at(LocalTime.of(10, 0)))).isEqualTo(1);
+        assertThat(utilityService.validateAppointment(at(LocalTime.of(9, 0)))).isZero();
+        assertThat(utilityService.validateAppointment(at(LocalTime.of(10, 30)))).isZero();
+    }
+
+    @Test
+    void timeFilterReadsTheSlotStart() {
+        assertThat(doctorService.filterDoctorsByTime("AM")).extracting(Doctor::getId).containsExactly(doctor.getId());
+        assertThat(doctorService.filterDoctorsByTime("PM")).isEmpty();
+    }
+
+    private Appointment at(LocalTime time) {
+        return new Appointment(null, doctor, patient, APPOINTMENT_DATE.atTime(time), 0);
+    }
+}
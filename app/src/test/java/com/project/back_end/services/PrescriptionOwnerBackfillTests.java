@@ -0,0 +1,58 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.support.EndpointTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrescriptionOwnerBackfillTests extends EndpointTestSupport {
+
+    @Autowired
+    private PrescriptionOwnerBackfill backfill;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void fillsPrescriptionsOfLiveAndArchivedAppointmentsBehindOrphans() {
+        // More orphans than one chunk, stored first so they come ahead of the resolvable prescriptions in _id order
+        List<Prescription> orphans = new ArrayList<>();
+        for (long i = 1; i <= 600; i++) {
+            orphans.add(legacyPrescription(1_000_000_000L + i));
+        }
+        prescriptionRepository.saveAll(orphans);
+        Appointment archived = createAppointment(APPOINTMENT_DATE.plusDays(1).atTime(10, 0));
+        Prescription live = prescriptionRepository.save(legacyPrescription(appointment.getId()));
+        Prescription old = prescriptionRepository.save(legacyPrescription(archived.getId()));
+        archive(archived);
+
+        backfill.backfill();
+
+        for (Prescription prescription : List.of(live, old)) {
+            Prescription filled = prescriptionRepository.findById(prescription.getId()).orElseThrow();
+            assertThat(filled.getPatientId()).isEqualTo(patient.getId());
+            assertThat(filled.getDoctorId()).isEqualTo(doctor.getId());
+        }
+        assertThat(prescriptionRepository.findById(live.getId()).orElseThrow().getIssuedAt())
+                .isEqualTo(appointment.getAppointmentTime());
+        assertThat(prescriptionRepository.findById(old.getId()).orElseThrow().getIssuedAt())
+                .isEqualTo(archived.getAppointmentTime());
+    }
+
+    private Prescription legacyPrescription(Long appointmentId) {
+        return new Prescription(null, patient.getName(), appointmentId, "Medication", "1 tablet daily", null);
+    }
+
+    private void archive(Appointment appointment) {
+        jdbc.update("INSERT INTO archived_appointment (id, doctor_id, patient_id, appointment_time, status, archived_at) " +
+                "SELECT id, doctor_id, patient_id, appointment_time, status, CURRENT_TIMESTAMP FROM appointment WHERE id = ?",
+                appointment.getId());
+        jdbc.update("DELETE FROM appointment WHERE id = ?", appointment.getId());
+    }
+}
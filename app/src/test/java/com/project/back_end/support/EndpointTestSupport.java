@@ -0,0 +1,111 @@
+package com.project.back_end.support;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+import com.project.back_end.services.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+// Shared fixtures for endpoint tests: one doctor with two morning slots, one patient,
+// and one appointment between them next week at 09:00.
+@SpringBootTest
+@AutoConfigureMockMvc
+public abstract class EndpointTestSupport {
+
+    protected static final LocalDate APPOINTMENT_DATE = LocalDate.now().plusWeeks(1);
+
+    @Autowired
+    protected MockMvc mockMvc;
+    @Autowired
+    protected TokenService tokenService;
+    @Autowired
+    protected DoctorRepository doctorRepository;
+    @Autowired
+    protected PatientRepository patientRepository;
+    @Autowired
+    protected AppointmentRepository appointmentRepository;
+    @Autowired
+    protected ArchivedAppointmentRepository archivedAppointmentRepository;
+    @Autowired
+    protected PrescriptionRepository prescriptionRepository;
+
+    protected Doctor doctor;
+    protected Patient patient;
+    protected Appointment appointment;
+
+    @BeforeEach
+    void createFixtures() {
+        prescriptionRepository.deleteAll();
+        appointmentRepository.deleteAll();
+        archivedAppointmentRepository.deleteAll();
+        doctorRepository.deleteAll();
+        patientRepository.deleteAll();
+
+        doctor = new Doctor();
+        doctor.setName("Dr Grace Hopper");
+        doctor.setSpecialty("Cardiology");
+        doctor.setEmail("grace@clinic.test");
+        doctor.setPassword("secret123");
+        doctor.setPhone("5550000001");
+        doctor.setAvailableTimes(List.of("09:00-10:00", "10:00-11:00"));
+        doctor = doctorRepository.save(doctor);
+
+        patient = new Patient();
+        patient.setName("Ada Lovelace");
+        patient.setEmail("ada@clinic.test");
+        patient.setPassword("secret123");
+        patient.setPhone("5550000002");
+        patient.setAddress("12 Analytical Street");
+        patient = patientRepository.save(patient);
+
+        appointment = appointmentRepository.save(
+                new Appointment(null, doctor, patient, APPOINTMENT_DATE.atTime(9, 0), 0));
+    }
+
+    protected Appointment createAppointment(LocalDateTime time) {
+        return appointmentRepository.save(new Appointment(null, doctor, patient, time, 0));
+    }
+
+    protected Prescription createPrescription(Appointment appointment, String medication) {
+        Prescription prescription = new Prescription(null, patient.getName(), appointment.getId(), medication, "1 tablet daily", null);
+        prescription.setPatientId(patient.getId());
+        prescription.setDoctorId(doctor.getId());
+        prescription.setIssuedAt(LocalDateTime.now());
+        return prescriptionRepository.save(prescription);
+    }
+
+    protected String doctorToken() {
+        return tokenService.generateToken(doctor.getEmail());
+    }
+
+    protected String patientToken() {
+        return tokenService.generateToken(patient.getEmail());
+    }
+
+    // Completes async (Mono, StreamingResponseBody) handlers, so their queries are counted with the request
+    protected MvcResult perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result;
+    }
+}
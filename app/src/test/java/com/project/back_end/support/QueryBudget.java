@@ -0,0 +1,30 @@
+package com.project.back_end.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how many SQL statements and MongoDB commands the HTTP call made by the annotated test may cost.
+ * Fixtures belong in {@code @BeforeEach} methods, which run before counting starts.
+ * The test also fails when the same SELECT runs again with different parameters (an N+1),
+ * unless {@link #allowRepeatedSelects()} is set.
+ * With {@link #exact()} the call must cost exactly {@link #statements()} SQL statements, so a change that drops one
+ * (a missing write, an association no longer loaded) fails as well.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    int statements() default 0;
+
+    int mongoCommands() default 0;
+
+    boolean allowRepeatedSelects() default false;
+
+    boolean exact() default false;
+}
@@ -0,0 +1,49 @@
+package com.project.back_end.support;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        QueryCounter.reset();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        List<QueryCounter.Statement> statements = QueryCounter.statements();
+        List<String> mongoCommands = QueryCounter.mongoCommands();
+        Map<String, List<List<List<Object>>>> repeated = QueryCounter.repeatedSelects();
+
+        StringBuilder failures = new StringBuilder();
+        if (statements.size() > budget.statements() || budget.exact() && statements.size() != budget.statements()) {
+            failures.append(String.format("%d SQL statements, budget is %s%d:%n", statements.size(),
+                    budget.exact() ? "exactly " : "", budget.statements()));
+            statements.forEach(statement -> failures.append("  ").append(statement.sql())
+                    .append(" ").append(statement.parameters()).append(System.lineSeparator()));
+        }
+        if (mongoCommands.size() > budget.mongoCommands()) {
+            failures.append(String.format("%d MongoDB commands, budget is %d:%n", mongoCommands.size(), budget.mongoCommands()));
+            mongoCommands.forEach(command -> failures.append("  ").append(command).append(System.lineSeparator()));
+        }
+        if (!budget.allowRepeatedSelects() && !repeated.isEmpty()) {
+            failures.append(String.format("Possible N+1: the same SELECT ran with different parameters:%n"));
+            repeated.forEach((sql, parameters) -> failures.append("  ").append(parameters.size()).append("x ").append(sql)
+                    .append(" ").append(parameters).append(System.lineSeparator()));
+        }
+        if (!failures.isEmpty()) {
+            fail(context.getDisplayName() + " exceeded its query budget" + System.lineSeparator() + failures);
+        }
+    }
+}
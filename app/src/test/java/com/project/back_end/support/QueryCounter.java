@@ -0,0 +1,93 @@
+package com.project.back_end.support;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.bson.BsonValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+// Records every JDBC statement executed and every MongoDB command either Mongo client sends.
+// Requests may finish on executor or driver threads, so the recordings are global rather than per thread;
+// tests that measure them must not run concurrently.
+public final class QueryCounter {
+
+    public record Statement(String sql, List<List<Object>> parameters) {
+    }
+
+    // Driver housekeeping, not caused by application code
+    private static final Set<String> IGNORED_MONGO_COMMANDS = Set.of(
+            "hello", "ismaster", "ping", "buildinfo", "endsessions", "saslstart", "saslcontinue");
+
+    private static final List<Statement> STATEMENTS = new CopyOnWriteArrayList<>();
+    private static final List<String> MONGO_COMMANDS = new CopyOnWriteArrayList<>();
+
+    public static final QueryExecutionListener SQL_LISTENER = new QueryExecutionListener() {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for (QueryInfo query : queryInfoList) {
+                List<List<Object>> parameters = query.getParametersList().stream()
+                        .map(set -> set.stream()
+                                .map(ParameterSetOperation::getArgs)
+                                .map(args -> args.length > 1 ? args[1] : Arrays.asList(args))
+                                .collect(Collectors.toList()))
+                        .collect(Collectors.toList());
+                STATEMENTS.add(new Statement(query.getQuery(), parameters));
+            }
+        }
+    };
+
+    public static final CommandListener MONGO_LISTENER = new CommandListener() {
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            String command = event.getCommandName();
+            if (!IGNORED_MONGO_COMMANDS.contains(command.toLowerCase(Locale.ROOT))) {
+                BsonValue target = event.getCommand().get(command);
+                MONGO_COMMANDS.add(target != null && target.isString()
+                        ? command + " " + target.asString().getValue()
+                        : command);
+            }
+        }
+    };
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        STATEMENTS.clear();
+        MONGO_COMMANDS.clear();
+    }
+
+    public static List<Statement> statements() {
+        return new ArrayList<>(STATEMENTS);
+    }
+
+    public static List<String> mongoCommands() {
+        return new ArrayList<>(MONGO_COMMANDS);
+    }
+
+    // SELECTs run more than once with different parameters: the N+1 shape. The value lists each parameter set seen.
+    public static Map<String, List<List<List<Object>>>> repeatedSelects() {
+        return STATEMENTS.stream()
+                .filter(statement -> statement.sql().stripLeading().toLowerCase(Locale.ROOT).startsWith("select"))
+                .collect(Collectors.groupingBy(Statement::sql,
+                        Collectors.mapping(Statement::parameters, Collectors.toCollection(ArrayList::new))))
+                .entrySet().stream()
+                .filter(entry -> entry.getValue().stream().distinct().count() > 1)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+}
@@ -0,0 +1,63 @@
+package com.project.back_end.support;
+
+import com.mongodb.ServerAddress;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+// Picked up by component scanning in every @SpringBootTest (it lives under the application's package).
+// Starts an in-process MongoDB stand-in (MySQL is replaced by H2 in config/application.properties)
+// and routes both stores through QueryCounter.
+@Configuration(proxyBeanMethods = false)
+public class StandInDatabases {
+
+    // H2 rejects the negative fetch size that makes MySQL Connector/J stream a result set (AppointmentRepository's
+    // export queries), so those statements fetch this many rows at a time instead
+    public static final int STREAMING_FETCH_SIZE = 50;
+
+    @Bean(destroyMethod = "shutdownNow")
+    public MongoServer mongoServer() {
+        return new MongoServer(new MemoryBackend());
+    }
+
+    // Applied after the customizer built from spring.data.mongodb.uri, so the host and port are replaced
+    @Bean
+    public MongoClientSettingsBuilderCustomizer standInMongo(MongoServer mongoServer) {
+        InetSocketAddress address = mongoServer.bind();
+        return builder -> builder
+                .applyToClusterSettings(cluster -> cluster.hosts(
+                        List.of(new ServerAddress(address.getHostString(), address.getPort()))))
+                .addCommandListener(QueryCounter.MONGO_LISTENER);
+    }
+
+    @Bean
+    public static BeanPostProcessor countingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(QueryCounter.SQL_LISTENER)
+                            .beforeMethod(execution -> {
+                                if (execution.getMethod().getName().equals("setFetchSize")
+                                        && (int) execution.getMethodArgs()[0] < 0) {
+                                    execution.setMethodArgs(new Object[] {STREAMING_FETCH_SIZE});
+                                }
+                            })
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}